@@ -0,0 +1,41 @@
+package com.example.customerservice.cache;
+
+import com.example.customerservice.dto.CustomerNotificationPreferencesDto;
+import com.example.customerservice.dto.CustomerResponseDto;
+import com.example.customerservice.dto.LoanLimitsDto;
+import com.example.customerservice.model.Customer;
+import com.example.customerservice.model.CustomerNotificationPreferences;
+import com.example.customerservice.model.LoanLimit;
+
+/**
+ * Detached snapshot of a customer with its loan limit and notification preferences as held by
+ * {@link CustomerCache}. The entities are shared between readers and must not be modified; write
+ * paths load their own copy from the repository. {@code loanLimit} and {@code preferences} are null
+ * when the customer has none.
+ */
+public record CachedCustomer(Customer customer, LoanLimit loanLimit, CustomerNotificationPreferences preferences) {
+
+    public CustomerResponseDto toResponseDto() {
+        var loanLimits = loanLimit == null ? null : LoanLimitsDto.builder()
+                .creditLimit(loanLimit.getCreditLimit())
+                .availableLimit(loanLimit.getAvailableLimit())
+                .currency(loanLimit.getCurrency())
+                .build();
+        var customerPreferences = preferences == null ? null : CustomerNotificationPreferencesDto.builder()
+                .smsEnabled(preferences.isSmsEnabled())
+                .emailEnabled(preferences.isEmailEnabled())
+                .pushNotificationEnabled(preferences.isPushNotificationEnabled())
+                .build();
+        return CustomerResponseDto.builder()
+                .id(customer.getId())
+                .firstName(customer.getFirstName())
+                .lastName(customer.getLastName())
+                .email(customer.getEmail())
+                .phoneNumber(customer.getPhoneNumber())
+                .nationalId(customer.getNationalId())
+                .income(customer.getIncome())
+                .loanLimits(loanLimits)
+                .customerPreferences(customerPreferences)
+                .build();
+    }
+}
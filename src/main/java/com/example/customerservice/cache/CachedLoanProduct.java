@@ -0,0 +1,21 @@
+package com.example.customerservice.cache;
+
+import com.example.customerservice.enums.TenureType;
+import com.example.customerservice.enums.TenureUnit;
+import com.example.customerservice.model.LoanProduct;
+
+/**
+ * Immutable copy of a {@link LoanProduct} held by the {@link LoanProductCatalog}.
+ */
+public record CachedLoanProduct(Long id,
+                                String name,
+                                String description,
+                                TenureType tenureType,
+                                Integer tenureValue,
+                                TenureUnit tenureUnit) {
+
+    static CachedLoanProduct of(LoanProduct product) {
+        return new CachedLoanProduct(product.getId(), product.getName(), product.getDescription(),
+                product.getTenureType(), product.getTenureValue(), product.getTenureUnit());
+    }
+}
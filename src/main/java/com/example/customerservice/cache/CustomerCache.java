@@ -0,0 +1,134 @@
+package com.example.customerservice.cache;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.exception.ResourceNotFoundException;
+import com.example.customerservice.repository.CustomerNotificationPreferenceRepository;
+import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.repository.LoanLimitRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bounded read-through cache of customers keyed by id. Entries expire after a fixed time and the
+ * least recently used ones are evicted once the size bound is reached. Writers publish a
+ * {@link CustomerChangedEvent} and the entry is invalidated once their transaction completes, whether it
+ * commits or rolls back, so a reader never repopulates the cache from uncommitted state.
+ *
+ * <p>A miss is loaded in a read-only transaction of its own and the entities are detached before they are
+ * cached, so they never belong to the caller's persistence context: a caller inside a write transaction
+ * neither sees its own uncommitted changes cached nor gets the shared instances enrolled in its flush. That
+ * transaction holds a second pool connection while the caller's is suspended, so write paths read the
+ * entities they change from the repositories rather than from this cache.
+ *
+ * <p>Entries are futures so that a miss is loaded outside the map's bin lock: the first caller installs an
+ * incomplete future and loads the customer, concurrent callers for the same id wait on it. Loading inside
+ * {@code Cache.get(key, loader)} would hold a monitor across the JDBC calls and pin the carrier of a virtual
+ * thread.
+ *
+ * <p>Hit, miss and eviction counts are exported under the {@code cache.*} meters with
+ * {@code cache=customers}.
+ */
+@Component
+@Slf4j
+public class CustomerCache {
+    public static final String CACHE_NAME = "customers";
+
+    private final CustomerRepository customerRepository;
+    private final LoanLimitRepository loanLimitRepository;
+    private final CustomerNotificationPreferenceRepository customerPreferencesRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate loadTransaction;
+    private final AsyncCache<Long, CachedCustomer> cache;
+
+    public CustomerCache(CustomerRepository customerRepository,
+                         LoanLimitRepository loanLimitRepository,
+                         CustomerNotificationPreferenceRepository customerPreferencesRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         AppConfig appConfig,
+                         MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        this.loanLimitRepository = loanLimitRepository;
+        this.customerPreferencesRepository = customerPreferencesRepository;
+        this.entityManager = entityManager;
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getCustomerCacheMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(appConfig.getCustomerCacheExpireAfterWriteSeconds()))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @throws ResourceNotFoundException when no customer exists with the given id; misses are not cached
+     */
+    public CachedCustomer get(Long customerId) {
+        var loading = new CompletableFuture<CachedCustomer>();
+        var entry = cache.get(customerId, (id, executor) -> loading);
+        if (entry == loading) {
+            try {
+                loading.complete(load(customerId));
+            } catch (RuntimeException e) {
+                // A failed future is dropped from the cache, so misses are retried by the next caller
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(Long customerId) {
+        cache.synchronous().invalidate(customerId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        log.debug("Invalidating cached customer {}", event.customerId());
+        invalidate(event.customerId());
+    }
+
+    private CachedCustomer load(Long customerId) {
+        return loadTransaction.execute(status -> {
+            var customer = customerRepository.findById(customerId).orElseThrow(
+                    () -> new ResourceNotFoundException("customer with id:  " + customerId + " not found"));
+            var loaded = new CachedCustomer(customer,
+                    loanLimitRepository.findByCustomerId(customerId).orElse(null),
+                    customerPreferencesRepository.findByCustomerId(customerId).orElse(null));
+            // Without an outer transaction the new one may run on the request's open-in-view EntityManager
+            detach(loaded.customer());
+            detach(loaded.loanLimit());
+            detach(loaded.preferences());
+            return loaded;
+        });
+    }
+
+    private void detach(Object entity) {
+        if (entity != null) {
+            entityManager.detach(entity);
+        }
+    }
+}
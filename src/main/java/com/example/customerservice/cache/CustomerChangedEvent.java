@@ -0,0 +1,8 @@
+package com.example.customerservice.cache;
+
+/**
+ * Published whenever a customer, its loan limit or its notification preferences are written.
+ * {@link CustomerCache} drops the entry once the surrounding transaction has committed.
+ */
+public record CustomerChangedEvent(Long customerId) {
+}
@@ -0,0 +1,165 @@
+package com.example.customerservice.cache;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.repository.LoanProductRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the whole {@code loan_products} table, indexed by id and by case-insensitive name. The table
+ * is tiny and rarely written, so a refresh reloads all of it into new immutable maps and publishes them with a
+ * single volatile write: readers take no lock, make no database round trip and always see one consistent
+ * version of the catalog.
+ *
+ * <p>The catalog is loaded at startup and reloaded when a {@code LoanProductChangedEventDto} arrives on the loan
+ * product fanout exchange, which every instance receives on a queue of its own. As a fallback for writers that do
+ * not broadcast, {@code CHECKSUM TABLE loan_products} is polled every {@code loan.product.catalog.pollIntervalMs}
+ * and a changed checksum triggers a reload too. Refreshes are serialized, so an older load can never replace a
+ * newer one.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LoanProductCatalog {
+    private final LoanProductRepository loanProductRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AppConfig appConfig;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    /**
+     * When a miss last reloaded the catalog, guarded by {@link #refreshLock}.
+     */
+    private long lastMissReloadNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), null);
+
+    private record Snapshot(Map<Long, CachedLoanProduct> byId, Map<String, CachedLoanProduct> byName, String checksum) {
+    }
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    public Optional<CachedLoanProduct> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    /**
+     * Names are matched ignoring case; when two products share a name the one with the lowest id is returned.
+     */
+    public Optional<CachedLoanProduct> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(snapshot.byName().get(normalize(name)));
+    }
+
+    /**
+     * Products among {@code ids}, by id. An id missing from the catalog, such as a product created since the last
+     * refresh by a writer that did not broadcast, reloads the catalog once before giving up on it. Such reloads
+     * run at most once per {@code loan.product.catalog.missReloadIntervalMs}, so requests for ids that do not
+     * exist cannot turn every lookup into a table read.
+     */
+    public Map<Long, CachedLoanProduct> findAllById(Collection<Long> ids) {
+        var current = snapshot;
+        if (!current.byId().keySet().containsAll(ids)) {
+            current = reloadOnMiss(ids);
+        }
+        Map<Long, CachedLoanProduct> found = new HashMap<>();
+        for (Long id : ids) {
+            var product = current.byId().get(id);
+            if (product != null) {
+                found.put(id, product);
+            }
+        }
+        return found;
+    }
+
+    public Collection<CachedLoanProduct> findAll() {
+        return snapshot.byId().values();
+    }
+
+    /**
+     * Reloads the whole catalog and swaps it in.
+     */
+    public void reload() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${loan.product.catalog.pollIntervalMs}",
+            initialDelayString = "${loan.product.catalog.pollIntervalMs}")
+    public void reloadIfChanged() {
+        var checksum = checksum();
+        if (!Objects.equals(checksum, snapshot.checksum())) {
+            log.info("loan_products checksum changed, reloading the loan product catalog");
+            refresh();
+        }
+    }
+
+    private Snapshot reloadOnMiss(Collection<Long> ids) {
+        refreshLock.lock();
+        try {
+            // Another miss may have reloaded while this one waited for the lock
+            if (snapshot.byId().keySet().containsAll(ids)) {
+                return snapshot;
+            }
+            long now = System.nanoTime();
+            long interval = TimeUnit.MILLISECONDS.toNanos(appConfig.getLoanProductCatalogMissReloadIntervalMs());
+            if (now - lastMissReloadNanos < interval) {
+                return snapshot;
+            }
+            lastMissReloadNanos = now;
+            log.info("Loan product catalog is missing some of {}, reloading", ids);
+            return refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot refresh() {
+        refreshLock.lock();
+        try {
+            // Read before the rows: a write in between only makes the next poll reload once more
+            var checksum = checksum();
+            List<CachedLoanProduct> products = loanProductRepository.findAll().stream()
+                    .map(CachedLoanProduct::of)
+                    .sorted(Comparator.comparing(CachedLoanProduct::id))
+                    .toList();
+
+            Map<Long, CachedLoanProduct> byId = new HashMap<>();
+            Map<String, CachedLoanProduct> byName = new HashMap<>();
+            for (CachedLoanProduct product : products) {
+                byId.put(product.id(), product);
+                if (product.name() != null) {
+                    byName.putIfAbsent(normalize(product.name()), product);
+                }
+            }
+            snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), checksum);
+            log.info("Loaded {} loan products into the catalog", byId.size());
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private String checksum() {
+        return jdbcTemplate.query("CHECKSUM TABLE loan_products", (rs, rowNum) -> rs.getString("Checksum"))
+                .stream().findFirst().orElse(null);
+    }
+
+    private static String normalize(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+}
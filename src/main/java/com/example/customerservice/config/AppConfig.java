@@ -18,6 +18,45 @@ public class AppConfig {
     @Value("${loan.limit.adjustmentPercentage}")
     private int adjustmentPercentage;
 
+    @Value("${loan.limit.ledger.snapshotInterval}")
+    private int ledgerSnapshotInterval;
+
+    @Value("${loan.limit.dedupe.cacheSize}")
+    private long dedupeCacheSize;
+    @Value("${loan.limit.dedupe.ttlHours}")
+    private long dedupeTtlHours;
+    @Value("${loan.limit.dedupe.pruneBatchSize}")
+    private int dedupePruneBatchSize;
+
+    @Value("${loan.product.catalog.missReloadIntervalMs}")
+    private long loanProductCatalogMissReloadIntervalMs;
+
+    @Value("${loan.overdue.sweep.chunkSize}")
+    private int overdueSweepChunkSize;
+    @Value("${loan.overdue.sweep.workers}")
+    private int overdueSweepWorkers;
+    @Value("${loan.overdue.sweep.partitionsPerWorker}")
+    private int overdueSweepPartitionsPerWorker;
+    @Value("${loan.overdue.sweep.lockRetries}")
+    private int overdueSweepLockRetries;
+
+    @Value("${customer.bulk.chunkSize}")
+    private int bulkChunkSize;
+
+    @Value("${customer.cache.maximumSize}")
+    private long customerCacheMaximumSize;
+    @Value("${customer.cache.expireAfterWriteSeconds}")
+    private long customerCacheExpireAfterWriteSeconds;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+    @Value("${customer.concurrency.maxInFlightRequests}")
+    private int maxInFlightRequests;
+    @Value("${customer.concurrency.acquireTimeoutMs}")
+    private long concurrencyAcquireTimeoutMs;
+    @Value("${customer.concurrency.reservedConnections}")
+    private int reservedConnections;
+
     @Value("${rabbitmq.loan.limit.exchange}")
     private String exchange;
 
@@ -25,6 +64,40 @@ public class AppConfig {
     private String routingKey;
     @Value("${rabbitmq.loan.limit.queue}")
     private String queueName;
+    @Value("${rabbitmq.loan.limit.batch.size}")
+    private int batchSize;
+    @Value("${rabbitmq.loan.limit.batch.receiveTimeout}")
+    private long batchReceiveTimeout;
+    @Value("${rabbitmq.loan.limit.listener.mode}")
+    private String listenerMode;
+    @Value("${rabbitmq.loan.limit.partition.count}")
+    private int partitionCount;
+    @Value("${rabbitmq.loan.limit.partition.prefetch}")
+    private int partitionPrefetch;
+    @Value("${rabbitmq.loan.limit.partition.queueDepth}")
+    private int partitionQueueDepth;
+    @Value("${rabbitmq.loan.limit.deadLetterExchange}")
+    private String deadLetterExchange;
+    @Value("${rabbitmq.loan.limit.parkingRoutingKey}")
+    private String parkingRoutingKey;
+    @Value("${rabbitmq.loan.limit.parkingQueue}")
+    private String parkingQueue;
+    @Value("${rabbitmq.loan.limit.retry.exchange}")
+    private String retryExchange;
+    @Value("${rabbitmq.loan.limit.retry.maxAttempts}")
+    private int retryMaxAttempts;
+    @Value("${rabbitmq.loan.limit.retry.initialDelayMs}")
+    private long retryInitialDelayMs;
+    @Value("${rabbitmq.loan.limit.retry.multiplier}")
+    private int retryMultiplier;
+    @Value("${rabbitmq.loan.limit.retry.confirmTimeoutMs}")
+    private long retryConfirmTimeoutMs;
+    @Value("${rabbitmq.loan.limit.replay.confirmTimeoutMs}")
+    private long replayConfirmTimeoutMs;
+    @Value("${rabbitmq.loan.limit.metrics.queueDepthPollMs}")
+    private long queueDepthPollMs;
+    @Value("${rabbitmq.loanProduct.exchange}")
+    private String loanProductExchange;
     @Value("${rabbitmq.notification.exchange}")
     private String notificationExchange;
 
@@ -33,6 +106,19 @@ public class AppConfig {
     @Value("${rabbitmq.notification.queue}")
     private String notificationQueue;
 
+    @Value("${rabbitmq.notification.publisher.bufferSize}")
+    private int notificationBufferSize;
+    @Value("${rabbitmq.notification.publisher.batchSize}")
+    private int notificationBatchSize;
+    @Value("${rabbitmq.notification.publisher.maxPendingConfirms}")
+    private int notificationMaxPendingConfirms;
+    @Value("${rabbitmq.notification.publisher.offerTimeoutMs}")
+    private long notificationOfferTimeoutMs;
+    @Value("${rabbitmq.notification.publisher.confirmTimeoutMs}")
+    private long notificationConfirmTimeoutMs;
+    @Value("${rabbitmq.notification.outbox.batchSize}")
+    private int notificationOutboxBatchSize;
+
     @Value("${rabbitmq.loanOverdueNotification.routingKey}")
     private String loanOverdueNotificationRoutingKey;
     @Value("${rabbitmq.loanOverdueNotification.queue}")
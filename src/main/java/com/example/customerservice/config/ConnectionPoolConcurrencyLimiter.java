@@ -0,0 +1,145 @@
+package com.example.customerservice.config;
+
+import com.example.customerservice.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of requests in flight when they run on virtual threads. Tomcat's worker pool used to be the
+ * only bound; without it every request would start a transaction and queue inside Hikari, holding memory and
+ * timing out after {@code connection-timeout}. Requests instead wait here for at most
+ * {@code customer.concurrency.acquireTimeoutMs} and are answered with 503 if the service is saturated.
+ *
+ * <p>Almost every endpoint holds a connection for most of its time, so the default limit is what the Hikari pool
+ * leaves once the other consumers that hold a connection at the same time are served: the loan limit listener
+ * (one consumer, or {@code partition.count} lanes in partitioned mode), the overdue sweep workers and
+ * {@code customer.concurrency.reservedConnections} for the scheduled jobs. A request that goes async, such as a
+ * streamed export, keeps its permit until the async processing completes. Actuator endpoints are not limited so
+ * health checks keep answering under load.
+ */
+@Component
+@Slf4j
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConnectionPoolConcurrencyLimiter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final int limit;
+    private final long acquireTimeoutMs;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public ConnectionPoolConcurrencyLimiter(AppConfig appConfig, DataSource dataSource, ObjectMapper objectMapper,
+                                            MeterRegistry meterRegistry) throws SQLException {
+        this.limit = appConfig.getMaxInFlightRequests() > 0
+                ? appConfig.getMaxInFlightRequests()
+                : defaultLimit(appConfig, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutMs = appConfig.getConcurrencyAcquireTimeoutMs();
+        this.objectMapper = objectMapper;
+        this.rejected = meterRegistry.counter("customer.requests.limited", "outcome", "rejected");
+        Gauge.builder("customer.requests.in.flight", permits, p -> limit - p.availablePermits())
+                .register(meterRegistry);
+        log.info("Limiting virtual thread requests to {} in flight", limit);
+    }
+
+    private static int defaultLimit(AppConfig appConfig, int poolSize) {
+        int listenerConnections = "partitioned".equals(appConfig.getListenerMode()) ? appConfig.getPartitionCount() : 1;
+        int sweepWorkers = appConfig.getOverdueSweepWorkers() > 0
+                ? appConfig.getOverdueSweepWorkers() : Runtime.getRuntime().availableProcessors();
+        int reserved = listenerConnections + sweepWorkers + appConfig.getReservedConnections();
+        if (reserved >= poolSize) {
+            log.warn("The connection pool of {} leaves no room for requests next to {} listener, {} overdue sweep and "
+                            + "{} reserved connections; size it up or set customer.concurrency.maxInFlightRequests",
+                    poolSize, listenerConnections, sweepWorkers, appConfig.getReservedConnections());
+            return 1;
+        }
+        return poolSize - reserved;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ApiResponse<>(false, "Service is busy, please retry."));
+            return;
+        }
+        var released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The request thread is done, but the async work (a streamed export) still holds its connection
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private record ReleasingAsyncListener(Runnable release) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Async processing restarted, e.g. by a further dispatch: keep listening on the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
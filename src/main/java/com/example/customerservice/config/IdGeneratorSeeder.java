@@ -0,0 +1,72 @@
+package com.example.customerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Keeps the {@code id_generators} rows behind the entities' table generators ahead of the ids already in use.
+ * Rows inserted while the ids were {@code AUTO_INCREMENT} would otherwise collide with the first blocks Hibernate
+ * hands out. Migration V8 drops {@code AUTO_INCREMENT}, so writers that omit the id now fail instead of taking ids
+ * the generators may hand out later.
+ *
+ * <p>Runs once the {@link EntityManagerFactory} exists (so the table has been created) and before the listeners
+ * start consuming. Each row is raised to {@code MAX(id) + ALLOCATION_SIZE + 1} and never lowered, which leaves
+ * a whole block of headroom whichever end of the block the pooled optimizer reads the stored value as.
+ *
+ * <p>Pool headroom: a table generator allocates each block in a transaction of its own, on a second connection
+ * taken while the inserting transaction still holds its first. Once every connection is held by a transaction
+ * waiting for a block, each waits for {@code connection-timeout} and fails. Blocks of {@value #ALLOCATION_SIZE}
+ * make that rare, but the pool needs spare connections beyond the concurrent inserting transactions; a pool of
+ * one can never allocate a block, so startup fails on it.
+ */
+@Component
+@Slf4j
+@DependsOn("entityManagerFactory")
+public class IdGeneratorSeeder {
+    public static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * Generator key (also the table name) to its id column.
+     */
+    private static final Map<String, String> GENERATORS = Map.of(
+            "customers", "id",
+            "customer_notification_preferences", "customer_preference_id",
+            "loan_limits", "id",
+            "loans", "id",
+            "loan_products", "id");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public IdGeneratorSeeder(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void seed() throws SQLException {
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        if (poolSize < 2) {
+            throw new IllegalStateException("Table id generators need a second connection to allocate a block, "
+                    + "but the connection pool holds " + poolSize);
+        }
+        GENERATORS.forEach((table, idColumn) -> {
+            // Identifiers come from the fixed map above, never from input
+            jdbcTemplate.update("""
+                    INSERT INTO id_generators (sequence_name, next_val)
+                    SELECT ?, COALESCE(MAX(%s), 0) + ? FROM %s
+                    ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))
+                    """.formatted(idColumn, table), table, ALLOCATION_SIZE + 1);
+            log.info("Id generator {} seeded past MAX({})", table, idColumn);
+        });
+    }
+}
@@ -5,15 +5,22 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JavaTypeMapper;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 @Getter
 @RequiredArgsConstructor
@@ -45,12 +52,88 @@ public class RabbitMQConfig {
                 .build();
     }
 
+    /**
+     * Deliveries the broker rejects without requeueing, such as bodies the listener cannot convert, are
+     * dead-lettered to the parking queue instead of being dropped.
+     */
     @Bean
     public Queue loanLimitQueue() {
         return QueueBuilder.durable(appConfig.getQueueName())
+                .deadLetterExchange(appConfig.getDeadLetterExchange())
+                .deadLetterRoutingKey(appConfig.getParkingRoutingKey())
                 .build();
     }
 
+    @Bean
+    DirectExchange loanLimitDeadLetterExchange() {
+        return new DirectExchange(appConfig.getDeadLetterExchange(), true, false);
+    }
+
+    @Bean
+    public Queue loanLimitParkingQueue() {
+        return QueueBuilder.durable(appConfig.getParkingQueue())
+                .build();
+    }
+
+    @Bean
+    Binding loanLimitParkingBinding(Queue loanLimitParkingQueue, DirectExchange loanLimitDeadLetterExchange) {
+        return BindingBuilder.bind(loanLimitParkingQueue).to(loanLimitDeadLetterExchange).with(appConfig.getParkingRoutingKey());
+    }
+
+    @Bean
+    DirectExchange loanLimitRetryExchange() {
+        return new DirectExchange(appConfig.getRetryExchange(), true, false);
+    }
+
+    /**
+     * One delay queue per retry attempt. Nothing consumes them: a message waits out the queue's TTL and is then
+     * dead-lettered back onto the loan limit exchange, so backing off never holds a consumer thread.
+     */
+    @Bean
+    Declarables loanLimitRetryQueues(DirectExchange loanLimitRetryExchange) {
+        List<Declarable> declarables = new ArrayList<>();
+        long delay = appConfig.getRetryInitialDelayMs();
+        for (int attempt = 1; attempt <= appConfig.getRetryMaxAttempts(); attempt++) {
+            Queue retryQueue = QueueBuilder.durable(retryQueueName(attempt))
+                    .ttl((int) delay)
+                    .deadLetterExchange(appConfig.getExchange())
+                    .deadLetterRoutingKey(appConfig.getRoutingKey())
+                    .build();
+            declarables.add(retryQueue);
+            declarables.add(BindingBuilder.bind(retryQueue).to(loanLimitRetryExchange).with(retryRoutingKey(attempt)));
+            delay *= appConfig.getRetryMultiplier();
+        }
+        return new Declarables(declarables);
+    }
+
+    public String retryQueueName(int attempt) {
+        return appConfig.getQueueName() + ".retry." + attempt;
+    }
+
+    public String retryRoutingKey(int attempt) {
+        return appConfig.getRoutingKey() + ".retry." + attempt;
+    }
+
+    /**
+     * Loan product changes are broadcast: every instance binds an exclusive, auto-delete queue of its own, named
+     * on the client by {@link AnonymousQueue} with a unique {@code spring.gen-} name, so each one refreshes its
+     * {@code LoanProductCatalog} and no queue outlives the instance.
+     */
+    @Bean
+    FanoutExchange loanProductExchange() {
+        return new FanoutExchange(appConfig.getLoanProductExchange(), true, false);
+    }
+
+    @Bean
+    public Queue loanProductCatalogQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    Binding loanProductCatalogBinding(Queue loanProductCatalogQueue, FanoutExchange loanProductExchange) {
+        return BindingBuilder.bind(loanProductCatalogQueue).to(loanProductExchange);
+    }
+
     @Bean
     public Queue notificationQueue() {
         return QueueBuilder.durable(appConfig.getNotificationQueue())
@@ -74,9 +157,15 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(loanOverdueNotificationQueue).to(notificationExchange).with(appConfig.getLoanOverdueNotificationRoutingKey());
     }
 
+    /**
+     * Shares the application {@link ObjectMapper}, so converting a message does not build a mapper of its own.
+     * Listener payloads are bound to the listener method's parameter type rather than the producer's type header.
+     */
     @Bean
     public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper());
+        converter.setTypePrecedence(Jackson2JavaTypeMapper.TypePrecedence.INFERRED);
+        return converter;
     }
 
     @Bean
@@ -86,6 +175,43 @@ public class RabbitMQConfig {
         return rabbitTemplate;
     }
 
+    /**
+     * Listener container for {@code rabbitmq.loan.limit.listener.mode=batch}. The consumer accumulates up to
+     * {@code batchSize} deliveries, or whatever arrived within {@code batchReceiveTimeout} ms, hands them to the
+     * listener as one list and acknowledges them together once the listener returns.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbitmq.loan.limit.listener.mode", havingValue = "batch")
+    public SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(appConfig.getBatchSize());
+        factory.setBatchReceiveTimeout(appConfig.getBatchReceiveTimeout());
+        factory.setPrefetchCount(appConfig.getBatchSize());
+        return factory;
+    }
+
+    /**
+     * Listener container for {@code rabbitmq.loan.limit.listener.mode=partitioned}. A single consumer keeps the
+     * broker order and hands each delivery to a worker lane; acknowledgements are manual because they are sent by
+     * the lane once the event has been applied. The prefetch bounds how many deliveries can be in the lanes at once.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rabbitmq.loan.limit.listener.mode", havingValue = "partitioned")
+    public SimpleRabbitListenerContainerFactory partitionedRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(appConfig.getPartitionPrefetch());
+        return factory;
+    }
+
     @Bean
     public ApplicationRunner runner(RabbitAdmin rabbitAdmin) {
         return args -> rabbitAdmin.initialize();
@@ -0,0 +1,42 @@
+package com.example.customerservice.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refuses to start in virtual thread mode with a MySQL driver that pins carrier threads. Connector/J before 9.0
+ * guards its I/O with {@code synchronized}, so every virtual thread blocked on a query would occupy one of the
+ * few carrier threads and the service would stall at roughly one query per CPU.
+ *
+ * <p>Pinning elsewhere can be traced at runtime with {@code -Djdk.tracePinnedThreads=short}.
+ */
+@Component
+@Slf4j
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningGuard {
+    static final int MIN_DRIVER_MAJOR_VERSION = 9;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VirtualThreadPinningGuard(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void checkDriver() {
+        var driver = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            var metaData = connection.getMetaData();
+            if (metaData.getDriverMajorVersion() < MIN_DRIVER_MAJOR_VERSION) {
+                throw new IllegalStateException("Virtual threads need MySQL Connector/J " + MIN_DRIVER_MAJOR_VERSION
+                        + "+ to avoid pinning carrier threads, found " + metaData.getDriverVersion());
+            }
+            return metaData.getDriverVersion();
+        });
+        log.info("Virtual threads enabled with {}", driver);
+    }
+}
@@ -1,17 +1,34 @@
 package com.example.customerservice.controller;
 
 import com.example.customerservice.dto.*;
+import com.example.customerservice.enums.ExportFormat;
+import com.example.customerservice.service.CustomerBulkService;
+import com.example.customerservice.service.CustomerExportService;
+import com.example.customerservice.service.CustomerPortfolioService;
 import com.example.customerservice.service.CustomerService;
+import com.example.customerservice.service.LoanLimitLedgerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/customer")
 @RequiredArgsConstructor
 public class CustomerController {
     private final CustomerService customerService;
+    private final CustomerBulkService customerBulkService;
+    private final CustomerExportService customerExportService;
+    private final CustomerPortfolioService customerPortfolioService;
+    private final LoanLimitLedgerService loanLimitLedgerService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<CustomerResponseDto>> createCustomer(@Valid @RequestBody CustomerRequest customer) {
@@ -19,13 +36,66 @@ public class CustomerController {
         return ResponseEntity.ok(new ApiResponse<>(true,"Customer created successfully", savedCustomer));
     }
 
+    /**
+     * Accepts a JSON array or newline-delimited JSON of customer requests and reports an outcome per record.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<BulkCustomerResponse>> createCustomers(InputStream body) throws IOException {
+        var response = customerBulkService.createCustomers(body);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Bulk onboarding processed", response));
+    }
+
     @GetMapping
     public ResponseEntity<?> getCustomer(@Valid CustomerFilterRequest request) {
-        var customer = customerService.getCustomers(request);
+        var customer = request.getCursor() != null
+                ? customerService.getCustomersByCursor(request)
+                : customerService.getCustomers(request);
         return ResponseEntity.ok(new ApiResponse<>(true,"Customer retrieved", customer));
     }
 
+    /**
+     * Streams every customer matching the filters as NDJSON or CSV, optionally gzip-compressed.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(CustomerFilterRequest request,
+                                                                 @RequestParam(defaultValue = "ndjson") String format,
+                                                                 @RequestParam(defaultValue = "false") boolean gzip) {
+        var exportFormat = ExportFormat.fromValue(format);
+        var fileName = "customers." + exportFormat.getValue() + (gzip ? ".gz" : "");
 
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (var gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    customerExportService.export(request, exportFormat, gzipOut);
+                }
+            } else {
+                customerExportService.export(request, exportFormat, out);
+            }
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<CustomerResponseDto>> getCustomerById(@PathVariable Long id) {
+        var customer = customerService.getCustomerDetails(id);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Customer retrieved", customer));
+    }
+
+    /**
+     * Loan exposure of the customer: outstanding amount due by loan state and by product, plus overdue figures.
+     */
+    @GetMapping("/{id}/portfolio")
+    public ResponseEntity<ApiResponse<CustomerPortfolioResponse>> getPortfolio(@PathVariable Long id) {
+        var portfolio = customerPortfolioService.getPortfolio(id);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Customer portfolio retrieved", portfolio));
+    }
 
     @PutMapping("/{id}/deactivate")
     public ResponseEntity<?> deactivateCustomer(@PathVariable long id) {
@@ -39,4 +109,14 @@ public class CustomerController {
         customerService.setLoanLimit(customerId, loanLimitsDto);
         return ResponseEntity.ok(new ApiResponse<>(true, "Loan limit set successfully"));
     }
+
+    /**
+     * Records a loan disbursement, repayment or manual adjustment against the customer's available limit.
+     */
+    @PostMapping("/{customerId}/loan-limit/ledger")
+    public ResponseEntity<ApiResponse<LoanLimitLedgerEntryDto>> recordLedgerEntry(@PathVariable Long customerId,
+                                                                                 @Valid @RequestBody LoanLimitLedgerRequest request) {
+        var entry = loanLimitLedgerService.record(customerId, request);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Loan limit ledger entry recorded", entry));
+    }
 }
@@ -0,0 +1,62 @@
+package com.example.customerservice.controller;
+
+import com.example.customerservice.dto.ApiResponse;
+import com.example.customerservice.dto.LoanLimitLedgerBalance;
+import com.example.customerservice.service.LoanLimitLedgerService;
+import com.example.customerservice.service.LoanLimitReplayService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Operator endpoints for the loan limit queue. They are only served to requests made from the host itself.
+ */
+@RestController
+@RequestMapping("/admin/loan-limit")
+@RequiredArgsConstructor
+public class LoanLimitAdminController {
+    private final LoanLimitReplayService replayService;
+    private final LoanLimitLedgerService ledgerService;
+
+    @PostMapping("/parked/replay")
+    public ResponseEntity<ApiResponse<Integer>> replayParkedEvents(HttpServletRequest request,
+                                                                   @RequestParam(defaultValue = "1000") int limit,
+                                                                   @RequestParam(defaultValue = "50") int ratePerSecond) {
+        if (!isLocal(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ApiResponse<>(false, "Only available locally"));
+        }
+        var replayed = replayService.replayParkedEvents(limit, ratePerSecond);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Parked loan limit events replayed", replayed));
+    }
+
+    /**
+     * Recomputes the customer's available limit from its latest ledger snapshot and the entries after it,
+     * overwriting the stored value if it has drifted.
+     */
+    @PostMapping("/{customerId}/rebuild")
+    public ResponseEntity<ApiResponse<LoanLimitLedgerBalance>> rebuildAvailableLimit(HttpServletRequest request,
+                                                                                     @PathVariable Long customerId) {
+        if (!isLocal(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new ApiResponse<>(false, "Only available locally"));
+        }
+        var balance = ledgerService.rebuild(customerId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Available limit rebuilt from the ledger", balance));
+    }
+
+    private static boolean isLocal(HttpServletRequest request) {
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
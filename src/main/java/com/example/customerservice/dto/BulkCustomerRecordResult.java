@@ -0,0 +1,26 @@
+package com.example.customerservice.dto;
+
+import com.example.customerservice.enums.BulkRecordStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one record of a bulk onboarding request; {@code index} is its zero-based position in the input.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCustomerRecordResult {
+    private int index;
+    private String nationalId;
+    private BulkRecordStatus status;
+    private Long customerId;
+    private List<String> errors;
+}
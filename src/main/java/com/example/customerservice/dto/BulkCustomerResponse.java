@@ -0,0 +1,21 @@
+package com.example.customerservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkCustomerResponse {
+    private int received;
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private int failed;
+    private List<BulkCustomerRecordResult> results;
+}
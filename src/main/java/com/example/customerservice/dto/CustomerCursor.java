@@ -0,0 +1,37 @@
+package com.example.customerservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last customer returned by a keyset page. Clients only ever see the encoded form,
+ * which keeps the (dateCreated, id) pair opaque and lets us change the layout later.
+ */
+public record CustomerCursor(LocalDateTime dateCreated, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        var raw = dateCreated + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a blank cursor which denotes the first page
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode()}
+     */
+    public static CustomerCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new CustomerCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
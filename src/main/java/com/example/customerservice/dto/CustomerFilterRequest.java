@@ -13,6 +13,12 @@ public class CustomerFilterRequest {
     private Integer active;
     private Integer id;
 
+    /**
+     * Switches the listing to keyset pagination when present. An empty value requests the first page,
+     * subsequent pages pass back the {@code nextCursor} of the previous response. {@code page} is ignored.
+     */
+    private String cursor;
+
     @Builder.Default
     @NotNull(message = "Page number is not supposed to be empty.")
     @Min(1)
@@ -0,0 +1,38 @@
+package com.example.customerservice.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only row of the customer listing, selected straight from the database by a constructor
+ * expression. Nothing here is a managed entity, so listing requests never populate the persistence
+ * context or get dirty-checked. The limit and preference columns are null when the row is missing.
+ */
+public record CustomerListingView(Long id,
+                                  String firstName,
+                                  String lastName,
+                                  String email,
+                                  String phoneNumber,
+                                  String nationalId,
+                                  BigDecimal income,
+                                  LocalDateTime dateCreated,
+                                  BigDecimal creditLimit,
+                                  BigDecimal availableLimit,
+                                  String limitCurrency,
+                                  Boolean smsEnabled,
+                                  Boolean emailEnabled,
+                                  Boolean pushNotificationEnabled) {
+
+    public CustomerResponseDto toResponseDto() {
+        var loanLimits = creditLimit == null && availableLimit == null && limitCurrency == null ? null
+                : new LoanLimitsDto(creditLimit, availableLimit, limitCurrency);
+        var preferences = smsEnabled == null ? null
+                : new CustomerNotificationPreferencesDto(smsEnabled, emailEnabled, pushNotificationEnabled);
+        return new CustomerResponseDto(id, firstName, lastName, email, phoneNumber, nationalId, income,
+                loanLimits, preferences);
+    }
+
+    public CustomerCursor cursor() {
+        return new CustomerCursor(dateCreated, id);
+    }
+}
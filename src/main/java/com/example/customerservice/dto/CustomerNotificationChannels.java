@@ -0,0 +1,29 @@
+package com.example.customerservice.dto;
+
+import com.example.customerservice.enums.NotificationChannel;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The notification switches of one customer, selected without loading the preferences entity.
+ */
+public record CustomerNotificationChannels(Long customerId,
+                                           boolean smsEnabled,
+                                           boolean emailEnabled,
+                                           boolean pushNotificationEnabled) {
+
+    public Set<NotificationChannel> enabled() {
+        Set<NotificationChannel> channels = EnumSet.noneOf(NotificationChannel.class);
+        if (smsEnabled) {
+            channels.add(NotificationChannel.SMS);
+        }
+        if (emailEnabled) {
+            channels.add(NotificationChannel.EMAIL);
+        }
+        if (pushNotificationEnabled) {
+            channels.add(NotificationChannel.PUSH);
+        }
+        return channels;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.customerservice.dto;
+
+import com.example.customerservice.enums.LoanState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CustomerPortfolioResponse {
+    private Long customerId;
+    /**
+     * Date the overdue figures were computed against.
+     */
+    private LocalDate asOf;
+    private long totalLoans;
+    /**
+     * Amount due on loans that are still collectable: {@code OPEN} and {@code OVERDUE}.
+     */
+    private BigDecimal outstandingAmountDue;
+    private long overdueLoans;
+    private BigDecimal overdueAmountDue;
+    private List<StateExposure> byState;
+    private List<ProductExposure> byProduct;
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class StateExposure {
+        private LoanState state;
+        private long loans;
+        private BigDecimal amountDue;
+    }
+
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class ProductExposure {
+        private Long loanProductId;
+        private String loanProductName;
+        private long loans;
+        private BigDecimal outstandingAmountDue;
+        private long overdueLoans;
+        private BigDecimal overdueAmountDue;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.customerservice.dto;
+
+import com.example.customerservice.enums.LoanState;
+
+import java.math.BigDecimal;
+
+/**
+ * One GROUP BY row of a customer's loans: the loans of one product in one state. {@code overdueLoans} and
+ * {@code overdueAmountDue} cover loans in state {@code OVERDUE} and open loans already past their due date.
+ * SQL sums over no (or only null) amounts arrive as null and are read as zero.
+ */
+public record LoanExposureView(LoanState state,
+                               Long loanProductId,
+                               Long loans,
+                               BigDecimal amountDue,
+                               Long overdueLoans,
+                               BigDecimal overdueAmountDue) {
+
+    public LoanExposureView {
+        overdueLoans = overdueLoans == null ? 0L : overdueLoans;
+        amountDue = amountDue == null ? BigDecimal.ZERO : amountDue;
+        overdueAmountDue = overdueAmountDue == null ? BigDecimal.ZERO : overdueAmountDue;
+    }
+}
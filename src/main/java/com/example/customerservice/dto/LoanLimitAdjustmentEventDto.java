@@ -1,5 +1,7 @@
 package com.example.customerservice.dto;
 
+import com.example.customerservice.enums.LoanLimitAdjustment;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,8 +11,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class LoanLimitAdjustmentEventDto {
     private Long customerId;
     private Long loanId;
-    private String adjustment;
+    private LoanLimitAdjustment adjustment;
+    /**
+     * Producer-assigned id used to recognise redeliveries; falls back to the AMQP message id when absent.
+     */
+    private String eventId;
 }
@@ -0,0 +1,17 @@
+package com.example.customerservice.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Available limit rebuilt from the ledger: the snapshot taken at {@code snapshotSequence} plus the
+ * {@code entriesReplayed} entries after it, up to {@code sequence}; {@code snapshotSequence} is -1 when no snapshot
+ * has been taken yet and the ledger was replayed from its opening entry. {@code repaired} is set when the stored
+ * available limit had drifted from it and was overwritten.
+ */
+public record LoanLimitLedgerBalance(Long customerId,
+                                     long sequence,
+                                     long snapshotSequence,
+                                     long entriesReplayed,
+                                     BigDecimal availableLimit,
+                                     boolean repaired) {
+}
@@ -0,0 +1,19 @@
+package com.example.customerservice.dto;
+
+import com.example.customerservice.enums.LoanLimitLedgerEntryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One loan limit ledger entry: {@code amount} is the signed change to the available limit and
+ * {@code balanceAfter} the available limit once it was applied.
+ */
+public record LoanLimitLedgerEntryDto(Long customerId,
+                                      long sequence,
+                                      LoanLimitLedgerEntryType entryType,
+                                      Long loanId,
+                                      BigDecimal amount,
+                                      BigDecimal balanceAfter,
+                                      LocalDateTime createdAt) {
+}
@@ -0,0 +1,26 @@
+package com.example.customerservice.dto;
+
+import com.example.customerservice.enums.LoanLimitLedgerEntryType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * A loan disbursement or repayment ({@code amount} positive, {@code loanId} required), or a manual adjustment
+ * ({@code amount} signed) to record against a customer's available limit.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanLimitLedgerRequest {
+    @NotNull(message = "entryType cannot be null")
+    private LoanLimitLedgerEntryType entryType;
+    private Long loanId;
+    @NotNull(message = "amount cannot be null")
+    private BigDecimal amount;
+}
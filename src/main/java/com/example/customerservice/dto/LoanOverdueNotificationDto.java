@@ -0,0 +1,26 @@
+package com.example.customerservice.dto;
+
+import com.example.customerservice.enums.NotificationChannel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published to {@code loan.loanOverdueNotification} when the overdue sweep moves a loan to {@code OVERDUE}, once
+ * for every channel the customer has enabled.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class LoanOverdueNotificationDto {
+    private Long loanId;
+    private Long customerId;
+    private BigDecimal amountDue;
+    private LocalDate dueDate;
+    private NotificationChannel channel;
+}
@@ -0,0 +1,17 @@
+package com.example.customerservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broadcast on the loan product exchange whenever a loan product is created, changed or removed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanProductChangedEventDto {
+    private Long loanProductId;
+}
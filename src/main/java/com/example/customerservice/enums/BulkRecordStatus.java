@@ -0,0 +1,8 @@
+package com.example.customerservice.enums;
+
+public enum BulkRecordStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
@@ -0,0 +1,34 @@
+package com.example.customerservice.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum LoanLimitAdjustment {
+    ADDITION("addition"),
+    SUBTRACTION("subtraction");
+
+    private final String value;
+
+    LoanLimitAdjustment(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isIncrease() {
+        return this == ADDITION;
+    }
+
+    @JsonCreator
+    public static LoanLimitAdjustment fromValue(String value) {
+        for (LoanLimitAdjustment adjustment : values()) {
+            if (adjustment.value.equalsIgnoreCase(value)) {
+                return adjustment;
+            }
+        }
+        throw new IllegalArgumentException("Invalid LoanLimitAdjustment : " + value);
+    }
+}
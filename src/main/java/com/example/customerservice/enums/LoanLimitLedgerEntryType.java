@@ -0,0 +1,32 @@
+package com.example.customerservice.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum LoanLimitLedgerEntryType {
+    OPENING("opening"),
+    DISBURSEMENT("disbursement"),
+    REPAYMENT("repayment"),
+    ADJUSTMENT("adjustment");
+
+    private final String value;
+
+    LoanLimitLedgerEntryType(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @JsonCreator
+    public static LoanLimitLedgerEntryType fromValue(String value) {
+        for (LoanLimitLedgerEntryType type : values()) {
+            if (type.value.equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid LoanLimitLedgerEntryType : " + value);
+    }
+}
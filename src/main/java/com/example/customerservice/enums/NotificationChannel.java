@@ -0,0 +1,31 @@
+package com.example.customerservice.enums;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum NotificationChannel {
+    SMS("sms"),
+    EMAIL("email"),
+    PUSH("push");
+
+    private final String value;
+
+    NotificationChannel(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @JsonCreator
+    public static NotificationChannel fromValue(String value) {
+        for (NotificationChannel channel : values()) {
+            if (channel.value.equalsIgnoreCase(value)) {
+                return channel;
+            }
+        }
+        throw new IllegalArgumentException("Invalid NotificationChannel : " + value);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.customerservice.helper;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.enums.LoanLimitAdjustment;
+import com.example.customerservice.repository.ProcessedLoanLimitEventRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Makes loan limit adjustment events idempotent on (loanId, adjustment, eventId). A key longer than the
+ * {@code event_key} column is stored as the SHA-256 of the whole key instead, since {@code INSERT IGNORE} would
+ * truncate it to a prefix that other events may share.
+ *
+ * <p>Keys of recently applied events are kept in a bounded in-memory LRU, so a redelivery of something this
+ * instance has just processed is dropped without touching the database. Behind it, every applied event is
+ * recorded in {@code processed_loan_limit_events} inside the same transaction as the adjustment; for a new event
+ * that insert is also the duplicate check, so the common path costs no extra round trip. Records older than the
+ * TTL are pruned in chunks.
+ *
+ * <p>Outcomes are counted in {@code loan.limit.events.dedupe} with {@code result} = {@code memory_hit},
+ * {@code db_hit}, {@code miss} or {@code untracked} (no event id to key on).
+ */
+@Component
+@Slf4j
+public class LoanLimitEventDeduplicator {
+    /**
+     * Same claim as {@link ProcessedLoanLimitEventRepository#insertIfAbsent}: 1 row when the key is new, 0 when it is
+     * there already. Written as INSERT ... SELECT rather than VALUES so that Connector/J, which rewrites batched
+     * VALUES inserts into one multi-row INSERT and then reports no per-row counts, keeps every row's count.
+     */
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT IGNORE INTO processed_loan_limit_events (event_key, processed_at) SELECT ?, ?";
+
+    /**
+     * Length of {@code processed_loan_limit_events.event_key}, in characters.
+     */
+    static final int MAX_KEY_LENGTH = 191;
+    private static final String HASHED_KEY_PREFIX = "sha256:";
+
+    private final ProcessedLoanLimitEventRepository processedEventRepository;
+    private final AppConfig appConfig;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Boolean> recentKeys;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter untracked;
+
+    public LoanLimitEventDeduplicator(ProcessedLoanLimitEventRepository processedEventRepository,
+                                      AppConfig appConfig,
+                                      JdbcTemplate jdbcTemplate,
+                                      MeterRegistry meterRegistry) {
+        this.processedEventRepository = processedEventRepository;
+        this.appConfig = appConfig;
+        this.jdbcTemplate = jdbcTemplate;
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(appConfig.getDedupeCacheSize())
+                .expireAfterWrite(Duration.ofHours(appConfig.getDedupeTtlHours()))
+                .build();
+        this.memoryHits = meterRegistry.counter("loan.limit.events.dedupe", "result", "memory_hit");
+        this.databaseHits = meterRegistry.counter("loan.limit.events.dedupe", "result", "db_hit");
+        this.misses = meterRegistry.counter("loan.limit.events.dedupe", "result", "miss");
+        this.untracked = meterRegistry.counter("loan.limit.events.dedupe", "result", "untracked");
+    }
+
+    /**
+     * @return the dedupe key, or {@code null} when the event carries neither an event id nor a message id
+     */
+    public static String keyOf(Long loanId, LoanLimitAdjustment adjustment, String eventId) {
+        if (eventId == null || eventId.isBlank()) {
+            return null;
+        }
+        var key = loanId + ":" + adjustment.getValue() + ":" + eventId;
+        // UTF-16 units, never fewer than the characters MySQL counts
+        return key.length() <= MAX_KEY_LENGTH ? key : HASHED_KEY_PREFIX + sha256(key);
+    }
+
+    private static String sha256(String key) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every JVM provides SHA-256", e);
+        }
+    }
+
+    /**
+     * Cheap pre-check usable outside a transaction: true only when the key is known to have been applied.
+     */
+    public boolean isKnownDuplicate(String eventKey) {
+        if (eventKey != null && recentKeys.getIfPresent(eventKey) != null) {
+            memoryHits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records the event as applied within the current transaction.
+     *
+     * @return false when the event had already been applied and must be skipped
+     */
+    public boolean claim(String eventKey) {
+        if (eventKey == null) {
+            untracked.increment();
+            return true;
+        }
+        if (isKnownDuplicate(eventKey)) {
+            return false;
+        }
+        if (processedEventRepository.insertIfAbsent(eventKey, LocalDateTime.now()) == 0) {
+            databaseHits.increment();
+            remember(List.of(eventKey));
+            return false;
+        }
+        misses.increment();
+        rememberAfterCommit(List.of(eventKey));
+        return true;
+    }
+
+    /**
+     * Batch variant of {@link #claim(String)}: one lookup for all keys not already known in memory, then the
+     * remaining ones are claimed with a batch of {@code INSERT IGNORE}s. The lookup only saves inserts; the claim
+     * itself is the insert, so a key another consumer claims in between comes back with an update count of 0 and
+     * is skipped like any other duplicate, instead of failing the whole batch on a duplicate key.
+     *
+     * @return the keys that had not been applied before, in no particular order
+     */
+    public Set<String> claimAll(Collection<String> eventKeys) {
+        Set<String> candidates = new HashSet<>();
+        for (String eventKey : eventKeys) {
+            if (!isKnownDuplicate(eventKey)) {
+                candidates.add(eventKey);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        var existing = processedEventRepository.findExistingKeys(candidates);
+        databaseHits.increment(existing.size());
+        remember(existing);
+        existing.forEach(candidates::remove);
+
+        List<String> keys = List.copyOf(candidates);
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, keys.stream()
+                .map(eventKey -> new Object[]{eventKey, now})
+                .toList());
+
+        Set<String> claimed = new HashSet<>();
+        List<String> claimedElsewhere = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (inserted[i] < 0) {
+                throw new IllegalStateException("No update count reported for claiming " + keys.get(i));
+            }
+            if (inserted[i] == 0) {
+                claimedElsewhere.add(keys.get(i));
+            } else {
+                claimed.add(keys.get(i));
+            }
+        }
+        databaseHits.increment(claimedElsewhere.size());
+        remember(claimedElsewhere);
+        misses.increment(claimed.size());
+        rememberAfterCommit(claimed);
+        return claimed;
+    }
+
+    public void countUntracked(int events) {
+        untracked.increment(events);
+    }
+
+    @Scheduled(fixedDelayString = "${loan.limit.dedupe.pruneIntervalMs}", initialDelayString = "${loan.limit.dedupe.pruneIntervalMs}")
+    public void pruneExpired() {
+        var cutoff = LocalDateTime.now().minusHours(appConfig.getDedupeTtlHours());
+        int batchSize = appConfig.getDedupePruneBatchSize();
+        int pruned = 0;
+        int deleted;
+        do {
+            deleted = processedEventRepository.deleteProcessedBefore(cutoff, batchSize);
+            pruned += deleted;
+        } while (deleted == batchSize);
+        log.info("Pruned {} processed loan limit events older than {}", pruned, cutoff);
+    }
+
+    private void remember(Collection<String> eventKeys) {
+        eventKeys.forEach(eventKey -> recentKeys.put(eventKey, Boolean.TRUE));
+    }
+
+    private void rememberAfterCommit(Collection<String> eventKeys) {
+        // A rolled back adjustment must stay eligible for its redelivery
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(eventKeys);
+            return;
+        }
+        var keys = List.copyOf(eventKeys);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(keys);
+            }
+        });
+    }
+}
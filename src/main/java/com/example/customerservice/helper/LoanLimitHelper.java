@@ -1,66 +1,194 @@
 package com.example.customerservice.helper;
 
+import com.example.customerservice.cache.CustomerChangedEvent;
 import com.example.customerservice.config.AppConfig;
-import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.enums.LoanLimitLedgerEntryType;
+import com.example.customerservice.repository.LoanLimitLedger;
 import com.example.customerservice.repository.LoanLimitRepository;
+import com.example.customerservice.repository.LoanLimitRepositoryCustom.FactorAdjustment;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LoanLimitHelper {
-    private final CustomerRepository customerRepository;
     private final AppConfig appConfig;
     private final LoanLimitRepository loanLimitRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoanLimitEventDeduplicator eventDeduplicator;
+    private final MeterRegistry meterRegistry;
+    private final LoanLimitLedger loanLimitLedger;
+
+    public static final String TIMER = "loan.limit.adjust";
+    /**
+     * Counter of adjustment events by {@code outcome}: increased, reduced, already_at_minimum (a reduction of a
+     * limit at zero), unchanged (any other nudge that rounds back to the same limit) or no_limit.
+     */
+    public static final String OUTCOMES = "loan.limit.adjustments";
+
+    /**
+     * One adjustment event as received from the queue; {@code eventKey} is null when it cannot be deduplicated.
+     */
+    public record PendingAdjustment(Long customerId, boolean isIncrease, String eventKey) {
+    }
 
+    /**
+     * Number of percentage increases and reductions received for one customer within a batch.
+     */
+    private record NetAdjustment(int increases, int reductions) {
+        NetAdjustment plus(boolean isIncrease) {
+            return isIncrease ? new NetAdjustment(increases + 1, reductions) : new NetAdjustment(increases, reductions + 1);
+        }
+    }
 
-    @Transactional
-    public void adjustLoanLimit(Long customerId, boolean isIncrease) {
-        var loanLimit = loanLimitRepository.findByCustomerId(customerId);
 
-        if (loanLimit.isEmpty()) {
-            log.warn("No loan limit set for customer {}", customerId);
+    /**
+     * Idempotent variant of {@link #adjustLoanLimit(Long, boolean)}: the event is recorded under {@code eventKey} in
+     * the same transaction and skipped if it has been applied before.
+     */
+    @Timed(TIMER)
+    @Transactional
+    public void adjustLoanLimit(Long customerId, boolean isIncrease, String eventKey) {
+        if (!eventDeduplicator.claim(eventKey)) {
+            log.info("Skipping already applied loan limit event {}", eventKey);
             return;
         }
+        adjustLoanLimit(customerId, isIncrease);
+    }
 
-        BigDecimal currentLimit = loanLimit.get().getAvailableLimit();
+    /**
+     * Applies one percentage nudge to the limit row locked by
+     * {@link LoanLimitRepository#applyAdjustmentFactor}, so concurrent consumers cannot lose each other's
+     * adjustments. Only a nudge that changes the rounded limit is written and recorded in the
+     * {@link LoanLimitLedger} as an adjustment; one that rounds back to the same limit, such as any nudge of a
+     * limit at zero, is not.
+     */
+    @Timed(TIMER)
+    @Transactional
+    public void adjustLoanLimit(Long customerId, boolean isIncrease) {
+        var factor = adjustmentFactor(isIncrease ? 1 : 0, isIncrease ? 0 : 1);
+        var adjustment = loanLimitRepository.applyAdjustmentFactor(customerId, factor);
 
-        // Block reduction if the loan limit is already at zero
-        if (!isIncrease && (currentLimit == null || currentLimit.compareTo(BigDecimal.ZERO) <= 0)) {
-            log.warn("Loan limit is already at minimum for customer: {}", customerId);
+        if (adjustment.isEmpty()) {
+            log.warn("No loan limit set for customer {}", customerId);
+            countOutcome("no_limit", 1);
             return;
         }
-
-        // Default to a minimum starting point if increasing and the current limit is null
-        if (isIncrease && (currentLimit == null)) {
-            currentLimit = BigDecimal.ZERO;
+        if (!adjustment.get().changed()) {
+            countUnchanged(customerId, factor, adjustment.get(), 1);
+            return;
         }
+        loanLimitLedger.recordFactors(Map.of(customerId, factor), LoanLimitLedgerEntryType.ADJUSTMENT);
+        countOutcome(isIncrease ? "increased" : "reduced", 1);
 
-        // Calculate adjustment amount
-        BigDecimal adjustmentAmount = currentLimit.multiply(BigDecimal.valueOf(appConfig.getAdjustmentPercentage()))
-                .divide(BigDecimal.valueOf(100));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        log.info("Loan limit {} for customer {} by {}%: {} -> {}", isIncrease ? "increased" : "reduced", customerId,
+                appConfig.getAdjustmentPercentage(), adjustment.get().previous(), adjustment.get().adjusted());
+    }
 
-        // Apply increase or decrease
-        BigDecimal newLoanLimit = isIncrease ? currentLimit.add(adjustmentAmount)
-                : currentLimit.subtract(adjustmentAmount);
+    /**
+     * @return {@code (1 + p)^increases * (1 - p)^reductions} for the configured adjustment percentage {@code p}
+     */
+    public BigDecimal adjustmentFactor(int increases, int reductions) {
+        var percentage = BigDecimal.valueOf(appConfig.getAdjustmentPercentage()).movePointLeft(2);
+        return BigDecimal.ONE.add(percentage).pow(increases)
+                .multiply(BigDecimal.ONE.subtract(percentage).pow(reductions));
+    }
 
-        // Ensure the loan limit does not go below zero when reducing
-        if (!isIncrease && newLoanLimit.compareTo(BigDecimal.ZERO) < 0) {
-            newLoanLimit = BigDecimal.ZERO;
+    /**
+     * Applies the adjustments of a whole batch of events in one transaction. Events that were applied before,
+     * or that appear twice in the batch, are dropped first. Percentage changes compose by multiplication, so every
+     * customer's remaining events collapse into a single factor {@code (1 + p)^increases * (1 - p)^reductions}
+     * applied through {@link LoanLimitRepository#applyAdjustmentFactors}: one locking read and one JDBC batch. As
+     * with {@link #adjustLoanLimit(Long, boolean)}, a net factor that leaves the rounded limit where it was is
+     * neither written nor recorded. Each customer's net change is recorded as one ledger adjustment. Limit rows are
+     * locked in ascending customer id order, so concurrent batches sharing customers lock them in the same order
+     * instead of deadlocking.
+     *
+     * @return the number of events applied
+     */
+    @Timed(TIMER)
+    @Transactional
+    public int adjustLoanLimits(List<PendingAdjustment> adjustments) {
+        var eventKeys = adjustments.stream().map(PendingAdjustment::eventKey).filter(Objects::nonNull).toList();
+        var freshKeys = eventKeys.isEmpty() ? Set.<String>of() : eventDeduplicator.claimAll(eventKeys);
+        eventDeduplicator.countUntracked(adjustments.size() - eventKeys.size());
+
+        Map<Long, NetAdjustment> adjustmentsByCustomer = new TreeMap<>();
+        Set<String> appliedKeys = new HashSet<>();
+        int applied = 0;
+        for (PendingAdjustment adjustment : adjustments) {
+            var eventKey = adjustment.eventKey();
+            if (eventKey != null && (!freshKeys.contains(eventKey) || !appliedKeys.add(eventKey))) {
+                log.info("Skipping already applied loan limit event {}", eventKey);
+                continue;
+            }
+            adjustmentsByCustomer.merge(adjustment.customerId(), new NetAdjustment(0, 0).plus(adjustment.isIncrease()),
+                    (current, ignored) -> current.plus(adjustment.isIncrease()));
+            applied++;
         }
 
-        // Update loan limit
-        var fetchedLoan = loanLimit.get();
-        fetchedLoan.setAvailableLimit(newLoanLimit);
-
-        loanLimitRepository.save(fetchedLoan);
+        applyNetAdjustments(adjustmentsByCustomer);
+        return applied;
+    }
 
-        log.info("Loan limit {} for customer {}. New Limit: {}", isIncrease ? "increased" : "reduced", customerId, newLoanLimit);
+    private void applyNetAdjustments(Map<Long, NetAdjustment> adjustmentsByCustomer) {
+        if (adjustmentsByCustomer.isEmpty()) {
+            return;
+        }
+        // Ascending, as the map is sorted; the ledger entries below follow the same order
+        Map<Long, BigDecimal> factors = new TreeMap<>();
+        adjustmentsByCustomer.forEach((customerId, adjustment) ->
+                factors.put(customerId, adjustmentFactor(adjustment.increases(), adjustment.reductions())));
+
+        var adjustments = loanLimitRepository.applyAdjustmentFactors(factors);
+
+        Map<Long, BigDecimal> adjustedFactors = new TreeMap<>();
+        adjustmentsByCustomer.forEach((customerId, netAdjustment) -> {
+            var adjustment = adjustments.get(customerId);
+            int events = netAdjustment.increases() + netAdjustment.reductions();
+            if (adjustment == null) {
+                log.warn("No loan limit set for customer {}", customerId);
+                countOutcome("no_limit", events);
+            } else if (!adjustment.changed()) {
+                countUnchanged(customerId, factors.get(customerId), adjustment, events);
+            } else {
+                adjustedFactors.put(customerId, factors.get(customerId));
+                eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+                countOutcome("increased", netAdjustment.increases());
+                countOutcome("reduced", netAdjustment.reductions());
+            }
+        });
+        loanLimitLedger.recordFactors(adjustedFactors, LoanLimitLedgerEntryType.ADJUSTMENT);
+        log.info("Applied loan limit adjustments for {} customers", adjustedFactors.size());
     }
 
+    private void countUnchanged(Long customerId, BigDecimal factor, FactorAdjustment adjustment, int events) {
+        if (factor.compareTo(BigDecimal.ONE) < 0 && adjustment.previous().signum() == 0) {
+            log.warn("Loan limit is already at minimum for customer: {}", customerId);
+            countOutcome("already_at_minimum", events);
+        } else {
+            log.info("Loan limit of customer {} stays at {} after rounding", customerId, adjustment.previous());
+            countOutcome("unchanged", events);
+        }
+    }
 
+    private void countOutcome(String outcome, int events) {
+        if (events > 0) {
+            meterRegistry.counter(OUTCOMES, "outcome", outcome).increment(events);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.example.customerservice.helper.LoanLimitHelper;
+import com.example.customerservice.helper.LoanLimitEventDeduplicator;
+import com.example.customerservice.helper.LoanLimitHelper.PendingAdjustment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch counterpart of {@link LoanLimitAdjustmentListener}, active with
+ * {@code rabbitmq.loan.limit.listener.mode=batch}. Events are deduplicated, grouped by customer and applied through
+ * {@link LoanLimitHelper#adjustLoanLimits(List)}; the container acknowledges the batch once this method returns.
+ * When the broker does not confirm a retry or parked copy the exception leaves the listener and the whole batch is
+ * requeued, so events of that batch that were already parked are parked again on redelivery.
+ *
+ * <p>Throughput is exported as {@code loan.limit.batch.events} (events applied), {@code loan.limit.batch.size}
+ * and {@code loan.limit.batch.duration}.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "rabbitmq.loan.limit.listener.mode", havingValue = "batch")
+public class LoanLimitAdjustmentBatchListener {
+    private final LoanLimitHelper loanLimitHelper;
+    private final LoanLimitRetryPublisher retryPublisher;
+    private final LoanLimitEventReader eventReader;
+    private final Counter processedEvents;
+    private final DistributionSummary batchSize;
+    private final Timer batchDuration;
+
+    private final LoanLimitListenerMetrics listenerMetrics;
+
+    public LoanLimitAdjustmentBatchListener(LoanLimitHelper loanLimitHelper, LoanLimitRetryPublisher retryPublisher,
+                                            LoanLimitEventReader eventReader, MeterRegistry meterRegistry,
+                                            LoanLimitListenerMetrics listenerMetrics) {
+        this.loanLimitHelper = loanLimitHelper;
+        this.retryPublisher = retryPublisher;
+        this.eventReader = eventReader;
+        this.processedEvents = meterRegistry.counter("loan.limit.batch.events");
+        this.batchSize = meterRegistry.summary("loan.limit.batch.size");
+        this.batchDuration = listenerMetrics.processing("batch");
+        this.listenerMetrics = listenerMetrics;
+    }
+
+    @RabbitListener(queues = "${rabbitmq.loan.limit.queue}", containerFactory = "batchRabbitListenerContainerFactory")
+    public void handleLoanLatenessEvents(List<Message> messages) {
+        batchSize.record(messages.size());
+        batchDuration.record(() -> {
+            List<PendingAdjustment> adjustments = new ArrayList<>(messages.size());
+            List<Message> accepted = new ArrayList<>(messages.size());
+            for (Message message : messages) {
+                listenerMetrics.recordLag(message);
+                LoanLimitAdjustmentEventDto event;
+                try {
+                    // Read per message so one malformed body does not fail the conversion of the whole batch
+                    event = eventReader.read(message);
+                } catch (Exception e) {
+                    log.error("Error parsing loan adjustment event: " + e.getMessage());
+                    retryPublisher.park(message, "Unreadable event: " + e.getMessage());
+                    continue;
+                }
+                if (event.getCustomerId() == null || event.getAdjustment() == null) {
+                    retryPublisher.park(message, "customerId and adjustment are required");
+                    continue;
+                }
+                String eventId = event.getEventId() != null ? event.getEventId()
+                        : message.getMessageProperties().getMessageId();
+                String eventKey = LoanLimitEventDeduplicator.keyOf(event.getLoanId(), event.getAdjustment(), eventId);
+                adjustments.add(new PendingAdjustment(event.getCustomerId(), event.getAdjustment().isIncrease(), eventKey));
+                accepted.add(message);
+            }
+
+            try {
+                int applied = loanLimitHelper.adjustLoanLimits(adjustments);
+                processedEvents.increment(applied);
+                log.info("Processed batch of {} loan adjustment events, {} applied", messages.size(), applied);
+            } catch (Exception e) {
+                // The batch was applied in one transaction, so none of it took effect
+                log.error("Error processing loan adjustment batch: " + e.getMessage());
+                retryPublisher.retryOrPark(accepted, e);
+            }
+        });
+    }
+}
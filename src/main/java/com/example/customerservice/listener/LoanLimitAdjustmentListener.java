@@ -1,38 +1,74 @@
 package com.example.customerservice.listener;
 
+import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.example.customerservice.helper.LoanLimitEventDeduplicator;
 import com.example.customerservice.helper.LoanLimitHelper;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+/**
+ * Applies loan limit adjustment events one at a time. The body is read into a {@link LoanLimitAdjustmentEventDto}
+ * by {@link LoanLimitEventReader} rather than by the container's converter, so events sent as a JSON String or
+ * with a non-JSON content type are still accepted; a body that cannot be read is parked. Events that fail to
+ * apply are handed to {@link LoanLimitRetryPublisher} rather than being dropped. When the broker does not confirm
+ * the retry or parked copy, the exception leaves the listener and the container requeues the delivery instead of
+ * acknowledging it.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "rabbitmq.loan.limit.listener.mode", havingValue = "single", matchIfMissing = true)
 public class LoanLimitAdjustmentListener {
     private final LoanLimitHelper loanLimitHelper;
+    private final LoanLimitEventDeduplicator eventDeduplicator;
+    private final LoanLimitRetryPublisher retryPublisher;
+    private final LoanLimitListenerMetrics listenerMetrics;
+    private final LoanLimitEventReader eventReader;
 
     @RabbitListener(queues = "loan.limit.queue")
-    public void handleLoanLatenessEvent(String message) {
+    public void handleLoanLatenessEvent(Message message,
+                                        @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        listenerMetrics.recordLag(message);
+        LoanLimitAdjustmentEventDto event;
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode eventData = objectMapper.readTree(message);
-            log.info("Received message to adjust loan limit: {}", eventData);
-
-            Long customerId = eventData.get("customerId").asLong();
-            String adjustment = eventData.get("adjustment").asText();
-
-            if(adjustment.equalsIgnoreCase("subtraction")){
-                // Reduce loan limit based on the configured percentage
-                loanLimitHelper.adjustLoanLimit(customerId,false);
-            }else if(adjustment.equalsIgnoreCase("addition")){
-                // Increase loan limit based on the configured percentage
-                loanLimitHelper.adjustLoanLimit(customerId,true);
+            event = eventReader.read(message);
+        } catch (Exception e) {
+            log.error("Error parsing loan adjustment event: " + e.getMessage());
+            retryPublisher.park(message, "Unreadable event: " + e.getMessage());
+            return;
+        }
+        log.info("Received message to adjust loan limit: {}", event);
+        listenerMetrics.processing("single").record(() -> handle(event, message, messageId));
+    }
+
+    private void handle(LoanLimitAdjustmentEventDto event, Message message, String messageId) {
+        if (event.getCustomerId() == null || event.getAdjustment() == null) {
+            retryPublisher.park(message, "customerId and adjustment are required");
+            return;
+        }
+
+        try {
+
+            String eventId = event.getEventId() != null ? event.getEventId() : messageId;
+
+            // Redeliveries this instance has just applied are dropped before opening a transaction
+            String eventKey = LoanLimitEventDeduplicator.keyOf(event.getLoanId(), event.getAdjustment(), eventId);
+            if (eventDeduplicator.isKnownDuplicate(eventKey)) {
+                log.info("Skipping already applied loan limit event {}", eventKey);
+                return;
             }
+
+            // Increase or reduce the loan limit by the configured percentage
+            loanLimitHelper.adjustLoanLimit(event.getCustomerId(), event.getAdjustment().isIncrease(), eventKey);
         } catch (Exception e) {
             log.error("Error processing loan adjustment event: " + e.getMessage());
+            retryPublisher.retryOrPark(message, e);
         }
     }
 }
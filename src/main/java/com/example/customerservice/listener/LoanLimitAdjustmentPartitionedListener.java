@@ -0,0 +1,121 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.example.customerservice.helper.LoanLimitEventDeduplicator;
+import com.example.customerservice.helper.LoanLimitHelper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Partitioned counterpart of {@link LoanLimitAdjustmentListener}, active with
+ * {@code rabbitmq.loan.limit.listener.mode=partitioned}. The consumer reads the event and hands it to its
+ * lane in {@link LoanLimitPartitionDispatcher}; the lane applies it and acknowledges the delivery. A delivery
+ * handed to {@link LoanLimitRetryPublisher} is acknowledged only once the broker has confirmed its copy, and
+ * requeued otherwise.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "rabbitmq.loan.limit.listener.mode", havingValue = "partitioned")
+public class LoanLimitAdjustmentPartitionedListener {
+    private final LoanLimitHelper loanLimitHelper;
+    private final LoanLimitEventDeduplicator eventDeduplicator;
+    private final LoanLimitPartitionDispatcher dispatcher;
+    private final LoanLimitRetryPublisher retryPublisher;
+    private final LoanLimitEventReader eventReader;
+    private final LoanLimitListenerMetrics listenerMetrics;
+    private final Timer processing;
+
+    public LoanLimitAdjustmentPartitionedListener(LoanLimitHelper loanLimitHelper,
+                                                  LoanLimitEventDeduplicator eventDeduplicator,
+                                                  LoanLimitPartitionDispatcher dispatcher,
+                                                  LoanLimitRetryPublisher retryPublisher,
+                                                  LoanLimitEventReader eventReader,
+                                                  LoanLimitListenerMetrics listenerMetrics) {
+        this.loanLimitHelper = loanLimitHelper;
+        this.eventDeduplicator = eventDeduplicator;
+        this.dispatcher = dispatcher;
+        this.retryPublisher = retryPublisher;
+        this.eventReader = eventReader;
+        this.listenerMetrics = listenerMetrics;
+        this.processing = listenerMetrics.processing("partitioned");
+    }
+
+    @RabbitListener(queues = "${rabbitmq.loan.limit.queue}", containerFactory = "partitionedRabbitListenerContainerFactory")
+    public void handleLoanLatenessEvent(Message message, Channel channel) {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        listenerMetrics.recordLag(message);
+        LoanLimitAdjustmentEventDto event;
+        try {
+            // Read here rather than by the container's converter: with manual acks a conversion failure
+            // would otherwise leave the delivery unacknowledged
+            event = eventReader.read(message);
+        } catch (Exception e) {
+            log.error("Error parsing loan adjustment event: " + e.getMessage());
+            handOver(channel, deliveryTag, () -> retryPublisher.park(message, "Unreadable event: " + e.getMessage()));
+            return;
+        }
+        if (event.getCustomerId() == null || event.getAdjustment() == null) {
+            handOver(channel, deliveryTag,
+                    () -> retryPublisher.park(message, "customerId and adjustment are required"));
+            return;
+        }
+
+        String eventId = event.getEventId() != null ? event.getEventId() : message.getMessageProperties().getMessageId();
+        String eventKey = LoanLimitEventDeduplicator.keyOf(event.getLoanId(), event.getAdjustment(), eventId);
+        if (eventDeduplicator.isKnownDuplicate(eventKey)) {
+            log.info("Skipping already applied loan limit event {}", eventKey);
+            acknowledge(channel, deliveryTag);
+            return;
+        }
+
+        dispatcher.dispatch(event.getCustomerId(), () -> {
+            // Timed on the lane, so time spent waiting in the lane queue is not counted as processing
+            var sample = Timer.start();
+            try {
+                loanLimitHelper.adjustLoanLimit(event.getCustomerId(), event.getAdjustment().isIncrease(), eventKey);
+                acknowledge(channel, deliveryTag);
+            } catch (Exception e) {
+                log.error("Error processing loan adjustment event: " + e.getMessage());
+                handOver(channel, deliveryTag, () -> retryPublisher.retryOrPark(message, e));
+            } finally {
+                sample.stop(processing);
+            }
+        });
+    }
+
+    /**
+     * Acknowledges the delivery once {@code publish} has had its copy confirmed, requeues it when that failed.
+     */
+    private void handOver(Channel channel, long deliveryTag, Runnable publish) {
+        try {
+            publish.run();
+        } catch (AmqpException e) {
+            log.error("Failed to hand over loan adjustment event {}, requeueing it: {}", deliveryTag, e.getMessage());
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (IOException nackFailure) {
+                // The delivery is redelivered once the channel is recovered
+                log.error("Failed to requeue loan adjustment event {}: {}", deliveryTag, nackFailure.getMessage());
+            }
+            return;
+        }
+        acknowledge(channel, deliveryTag);
+    }
+
+    private void acknowledge(Channel channel, long deliveryTag) {
+        try {
+            channel.basicAck(deliveryTag, false);
+        } catch (IOException e) {
+            // The delivery is redelivered once the channel is recovered
+            log.error("Failed to acknowledge loan adjustment event {}: {}", deliveryTag, e.getMessage());
+        }
+    }
+}
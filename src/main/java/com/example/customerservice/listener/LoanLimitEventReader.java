@@ -0,0 +1,43 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.amqp.core.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Reads a loan limit adjustment event from the raw message body, whatever the content type says. Producers send
+ * the event as a JSON object, either converted by a JSON converter or as plain text, or as a JSON document they
+ * serialized to a String first, which a JSON converter sends as a JSON string; that string is unwrapped and read
+ * in turn.
+ */
+@Component
+public class LoanLimitEventReader {
+    private final ObjectMapper objectMapper;
+    private final ObjectReader eventReader;
+
+    public LoanLimitEventReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.eventReader = objectMapper.readerFor(LoanLimitAdjustmentEventDto.class);
+    }
+
+    public LoanLimitAdjustmentEventDto read(Message message) throws IOException {
+        byte[] body = message.getBody();
+        if (isJsonString(body)) {
+            return eventReader.readValue(objectMapper.readValue(body, String.class));
+        }
+        return eventReader.readValue(body);
+    }
+
+    private static boolean isJsonString(byte[] body) {
+        for (byte b : body) {
+            if (!Character.isWhitespace(b)) {
+                return b == '"';
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.config.RabbitMQConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters shared by the loan limit listeners, whichever {@code rabbitmq.loan.limit.listener.mode} is active:
+ * <ul>
+ *     <li>{@code loan.limit.events.lag}: time from publication (the AMQP {@code timestamp} property, when the
+ *     producer sets it) to the listener picking the event up</li>
+ *     <li>{@code loan.limit.events.processing}: time spent applying a delivery or batch, tagged with {@code mode}</li>
+ *     <li>{@code loan.limit.queue.depth}: ready messages in the main, retry and parking queues, polled every
+ *     {@code rabbitmq.loan.limit.metrics.queueDepthPollMs} so scrapes never wait on the broker</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class LoanLimitListenerMetrics {
+    private final RabbitAdmin rabbitAdmin;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+    /**
+     * Queue name to the depth gauge tag; all retry delay queues are reported together as {@code retry}.
+     */
+    private final Map<String, String> queues = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> depths = new LinkedHashMap<>();
+
+    public LoanLimitListenerMetrics(RabbitAdmin rabbitAdmin, RabbitMQConfig rabbitMQConfig, AppConfig appConfig,
+                                    MeterRegistry meterRegistry) {
+        this.rabbitAdmin = rabbitAdmin;
+        this.meterRegistry = meterRegistry;
+        this.lag = Timer.builder("loan.limit.events.lag").register(meterRegistry);
+
+        queues.put(appConfig.getQueueName(), "main");
+        for (int attempt = 1; attempt <= appConfig.getRetryMaxAttempts(); attempt++) {
+            queues.put(rabbitMQConfig.retryQueueName(attempt), "retry");
+        }
+        queues.put(appConfig.getParkingQueue(), "parking");
+        for (String queue : queues.values()) {
+            depths.computeIfAbsent(queue, name -> meterRegistry.gauge("loan.limit.queue.depth",
+                    Tags.of("queue", name), new AtomicLong()));
+        }
+    }
+
+    /**
+     * Records the publication-to-consumption lag of a delivery; a no-op when the producer set no timestamp.
+     */
+    public void recordLag(Message message) {
+        var timestamp = message.getMessageProperties().getTimestamp();
+        if (timestamp != null) {
+            lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - timestamp.getTime())));
+        }
+    }
+
+    public Timer processing(String mode) {
+        return Timer.builder("loan.limit.events.processing")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${rabbitmq.loan.limit.metrics.queueDepthPollMs}")
+    public void pollQueueDepths() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        queues.forEach((queue, tag) -> {
+            try {
+                var info = rabbitAdmin.getQueueInfo(queue);
+                totals.merge(tag, info == null ? 0L : info.getMessageCount(), Long::sum);
+            } catch (Exception e) {
+                log.debug("Could not read depth of {}: {}", queue, e.getMessage());
+            }
+        });
+        totals.forEach((tag, depth) -> depths.get(tag).set(depth));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.config.AppConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs loan limit work on a fixed set of single-threaded lanes. The lane is chosen by hashing the customer id,
+ * so events for different customers proceed in parallel while events for one customer are applied strictly in
+ * the order they were dispatched. Each lane has a bounded queue; when it is full, {@link #dispatch} blocks the
+ * consumer thread, which stops the broker from delivering beyond the prefetch.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "rabbitmq.loan.limit.listener.mode", havingValue = "partitioned")
+public class LoanLimitPartitionDispatcher {
+    private final List<ThreadPoolExecutor> lanes;
+
+    public LoanLimitPartitionDispatcher(AppConfig appConfig, MeterRegistry meterRegistry) {
+        int partitionCount = appConfig.getPartitionCount();
+        this.lanes = new ArrayList<>(partitionCount);
+        for (int lane = 0; lane < partitionCount; lane++) {
+            var executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(appConfig.getPartitionQueueDepth()),
+                    new LaneThreadFactory(lane, appConfig.isVirtualThreadsEnabled()),
+                    LoanLimitPartitionDispatcher::waitForCapacity);
+            lanes.add(executor);
+            Gauge.builder("loan.limit.partition.queue.depth", executor, e -> e.getQueue().size())
+                    .tag("lane", String.valueOf(lane))
+                    .register(meterRegistry);
+        }
+        log.info("Started {} loan limit partition lanes", partitionCount);
+    }
+
+    public void dispatch(Long customerId, Runnable task) {
+        lanes.get(laneOf(customerId)).execute(task);
+    }
+
+    int laneOf(Long customerId) {
+        return Math.floorMod(Long.hashCode(customerId), lanes.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Loan limit partition lane did not drain in time, {} tasks dropped", lane.shutdownNow().size());
+            }
+        }
+    }
+
+    private static void waitForCapacity(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Loan limit partition lane is shut down");
+        }
+        try {
+            executor.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a loan limit partition lane", e);
+        }
+    }
+
+    private static final class LaneThreadFactory implements ThreadFactory {
+        private final int lane;
+        private final boolean virtual;
+        private final AtomicInteger generation = new AtomicInteger();
+
+        private LaneThreadFactory(int lane, boolean virtual) {
+            this.lane = lane;
+            this.virtual = virtual;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var name = "loan-limit-lane-" + lane + "-" + generation.incrementAndGet();
+            if (virtual) {
+                // Virtual threads are always daemon threads
+                return Thread.ofVirtual().name(name).unstarted(runnable);
+            }
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.config.RabbitMQConfig;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Takes loan limit deliveries the listeners could not apply off the hot path. A failure is republished to the
+ * delay queue of its next attempt (see {@link RabbitMQConfig#loanLimitRetryQueues}); once the attempts are used
+ * up, or when the event can never succeed, it is parked on the dead-letter queue for a later replay. Republished
+ * copies are persistent: a received message carries no delivery mode, and sent as it is it would not survive a
+ * broker restart.
+ *
+ * <p>Copies are published mandatory on a channel of their own in confirm mode, and every method returns only once
+ * the broker has confirmed and routed them, so the caller can then acknowledge the original delivery. A copy that
+ * is nacked, returned as unroutable or not confirmed within {@code rabbitmq.loan.limit.retry.confirmTimeoutMs}
+ * throws an {@link AmqpException}; the caller must then requeue the delivery rather than acknowledge it.
+ *
+ * <p>Outcomes are counted in {@code loan.limit.events.failed} with {@code outcome} = {@code retried} or
+ * {@code parked}, once confirmed.
+ */
+@Component
+@Slf4j
+public class LoanLimitRetryPublisher {
+    public static final String RETRY_COUNT_HEADER = "x-retry-count";
+    public static final String FAILURE_REASON_HEADER = "x-failure-reason";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitMQConfig rabbitMQConfig;
+    private final AppConfig appConfig;
+    private final MessagePropertiesConverter messagePropertiesConverter = new DefaultMessagePropertiesConverter();
+    private final Counter retried;
+    private final Counter parked;
+
+    public LoanLimitRetryPublisher(RabbitTemplate rabbitTemplate, RabbitMQConfig rabbitMQConfig,
+                                   AppConfig appConfig, MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.rabbitMQConfig = rabbitMQConfig;
+        this.appConfig = appConfig;
+        this.retried = meterRegistry.counter("loan.limit.events.failed", "outcome", "retried");
+        this.parked = meterRegistry.counter("loan.limit.events.failed", "outcome", "parked");
+    }
+
+    /**
+     * For failures that may go away, such as the database being unavailable.
+     */
+    public void retryOrPark(Message message, Exception cause) {
+        retryOrPark(List.of(message), cause);
+    }
+
+    /**
+     * {@link #retryOrPark(Message, Exception)} for deliveries that failed together, confirmed as one batch.
+     */
+    public void retryOrPark(List<Message> messages, Exception cause) {
+        List<Copy> copies = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            Integer retryCount = message.getMessageProperties().getHeader(RETRY_COUNT_HEADER);
+            int attempt = (retryCount == null ? 0 : retryCount) + 1;
+            if (attempt > appConfig.getRetryMaxAttempts()) {
+                copies.add(parkingCopy(message, "Retries exhausted: " + cause.getMessage()));
+                continue;
+            }
+            message.getMessageProperties().setHeader(RETRY_COUNT_HEADER, attempt);
+            message.getMessageProperties().setHeader(FAILURE_REASON_HEADER, cause.getMessage());
+            message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+            copies.add(new Copy(appConfig.getRetryExchange(), rabbitMQConfig.retryRoutingKey(attempt), message,
+                    attempt));
+        }
+        publishConfirmed(copies);
+
+        for (Copy copy : copies) {
+            if (copy.attempt() == 0) {
+                parked.increment();
+                log.error("Loan limit event parked on {}: {}", appConfig.getParkingQueue(),
+                        copy.message().getMessageProperties().getHeader(FAILURE_REASON_HEADER));
+            } else {
+                retried.increment();
+                log.warn("Loan limit event scheduled for retry {} of {}: {}", copy.attempt(),
+                        appConfig.getRetryMaxAttempts(), cause.getMessage());
+            }
+        }
+    }
+
+    /**
+     * For events that cannot succeed as they are, such as a body without a customer id.
+     */
+    public void park(Message message, String reason) {
+        publishConfirmed(List.of(parkingCopy(message, reason)));
+        parked.increment();
+        log.error("Loan limit event parked on {}: {}", appConfig.getParkingQueue(), reason);
+    }
+
+    private Copy parkingCopy(Message message, String reason) {
+        message.getMessageProperties().setHeader(FAILURE_REASON_HEADER, reason);
+        message.getMessageProperties().setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        return new Copy(appConfig.getDeadLetterExchange(), appConfig.getParkingRoutingKey(), message, 0);
+    }
+
+    private void publishConfirmed(List<Copy> copies) {
+        if (copies.isEmpty()) {
+            return;
+        }
+        rabbitTemplate.execute(cachedChannel -> {
+            // Not a cached channel: confirm mode would stay switched on for the template's other users
+            try (Channel channel = cachedChannel.getConnection().createChannel()) {
+                var unroutable = new AtomicReference<String>();
+                channel.addReturnListener(returned -> unroutable.compareAndSet(null,
+                        returned.getReplyText() + " on " + returned.getExchange() + "/" + returned.getRoutingKey()));
+                channel.confirmSelect();
+                for (Copy copy : copies) {
+                    var properties = messagePropertiesConverter.fromMessageProperties(
+                            copy.message().getMessageProperties(), StandardCharsets.UTF_8.name());
+                    channel.basicPublish(copy.exchange(), copy.routingKey(), true, properties,
+                            copy.message().getBody());
+                }
+                // Throws on a nack or timeout; the broker sends the return of an unroutable copy before its confirm
+                channel.waitForConfirmsOrDie(appConfig.getRetryConfirmTimeoutMs());
+                if (unroutable.get() != null) {
+                    throw new AmqpException("Loan limit event copy was not routed: " + unroutable.get());
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @param attempt the retry attempt the copy is scheduled for, 0 when it is parked
+     */
+    private record Copy(String exchange, String routingKey, Message message, int attempt) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.cache.LoanProductCatalog;
+import com.example.customerservice.dto.LoanProductChangedEventDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reloads this instance's {@link LoanProductCatalog} whenever a loan product change is broadcast. The catalog is
+ * reloaded whole, so it does not matter which product changed or whether several changes arrive at once.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LoanProductCatalogListener {
+    private final LoanProductCatalog loanProductCatalog;
+
+    @RabbitListener(queues = "#{loanProductCatalogQueue.name}")
+    public void onLoanProductChanged(LoanProductChangedEventDto event) {
+        log.info("Loan product {} changed, reloading the catalog", event.getLoanProductId());
+        loanProductCatalog.reload();
+    }
+}
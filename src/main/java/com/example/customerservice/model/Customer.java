@@ -1,5 +1,6 @@
 package com.example.customerservice.model;
 
+import com.example.customerservice.config.IdGeneratorSeeder;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -18,7 +19,9 @@ import java.time.LocalDateTime;
 
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customers_id")
+    @TableGenerator(name = "customers_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customers", allocationSize = IdGeneratorSeeder.ALLOCATION_SIZE)
     private Long id;
 
     private String firstName;
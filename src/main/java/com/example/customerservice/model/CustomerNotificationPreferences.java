@@ -1,5 +1,6 @@
 package com.example.customerservice.model;
 
+import com.example.customerservice.config.IdGeneratorSeeder;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,7 +11,9 @@ import lombok.Setter;
 @Table(name = "customer_notification_preferences")
 public class CustomerNotificationPreferences {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_notification_preferences_id")
+    @TableGenerator(name = "customer_notification_preferences_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customer_notification_preferences", allocationSize = IdGeneratorSeeder.ALLOCATION_SIZE)
     private Long customerPreferenceId;
     @OneToOne
     @JoinColumn(name = "customer_id", nullable = false, unique = true)
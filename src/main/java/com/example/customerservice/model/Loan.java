@@ -1,6 +1,7 @@
 package com.example.customerservice.model;
 
 
+import com.example.customerservice.config.IdGeneratorSeeder;
 import com.example.customerservice.enums.BillingCycleType;
 import com.example.customerservice.enums.LoanState;
 import com.example.customerservice.enums.LoanStructure;
@@ -23,7 +24,9 @@ import java.time.LocalDateTime;
 
 public class Loan {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "loans_id")
+    @TableGenerator(name = "loans_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "loans", allocationSize = IdGeneratorSeeder.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne
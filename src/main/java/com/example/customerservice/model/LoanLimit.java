@@ -1,10 +1,12 @@
 package com.example.customerservice.model;
 
+import com.example.customerservice.config.IdGeneratorSeeder;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -16,7 +18,9 @@ import java.math.BigDecimal;
 @Builder
 public class LoanLimit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "loan_limits_id")
+    @TableGenerator(name = "loan_limits_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "loan_limits", allocationSize = IdGeneratorSeeder.ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne
@@ -27,4 +31,16 @@ public class LoanLimit {
     private BigDecimal availableLimit;
     private String currency;
 
+    /**
+     * Sequence of the latest {@code loan_limit_ledger} entry; bumped with every change to the available limit.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long ledgerSequence;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 }
@@ -1,6 +1,7 @@
 package com.example.customerservice.model;
 
 
+import com.example.customerservice.config.IdGeneratorSeeder;
 import com.example.customerservice.enums.TenureType;
 import com.example.customerservice.enums.TenureUnit;
 import jakarta.persistence.*;
@@ -17,7 +18,9 @@ import lombok.NoArgsConstructor;
 @Builder
 public class LoanProduct {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "loan_products_id")
+    @TableGenerator(name = "loan_products_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "loan_products", allocationSize = IdGeneratorSeeder.ALLOCATION_SIZE)
     private Long id;
 
     private String name;
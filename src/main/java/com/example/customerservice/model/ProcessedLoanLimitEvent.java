@@ -0,0 +1,33 @@
+package com.example.customerservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dedupe record of a loan limit adjustment event that has been applied. Rows are only needed for as long
+ * as a redelivery is plausible and are pruned once older than {@code loan.limit.dedupe.ttlHours}.
+ */
+@Entity
+@Table(name = "processed_loan_limit_events",
+        indexes = @Index(name = "processed_loan_limit_events_processed_at_index", columnList = "processed_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProcessedLoanLimitEvent {
+    @Id
+    @Column(length = 191)
+    private String eventKey;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
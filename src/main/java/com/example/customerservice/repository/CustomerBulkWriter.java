@@ -0,0 +1,84 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.CustomerNotificationPreferencesDto;
+import com.example.customerservice.dto.CustomerRequest;
+import com.example.customerservice.model.Customer;
+import com.example.customerservice.model.CustomerNotificationPreferences;
+import com.example.customerservice.model.LoanLimit;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts a chunk of new customers together with their loan limits and notification preferences in a single
+ * transaction. Ids come from the pooled table generators, so nothing is written until the flush, where
+ * Hibernate sends the rows of each table as {@code hibernate.jdbc.batch_size} JDBC batches (multi-row INSERTs
+ * with {@code rewriteBatchedStatements}). Rows get the same defaults as {@code CustomerService.createCustomer}, and
+ * the loan limit ledgers are opened with one more batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerBulkWriter {
+    private final CustomerRepository customerRepository;
+    private final LoanLimitRepository loanLimitRepository;
+    private final CustomerNotificationPreferenceRepository preferencesRepository;
+    private final EntityManager entityManager;
+    private final AppConfig appConfig;
+    private final LoanLimitLedger loanLimitLedger;
+
+    /**
+     * @return the generated customer ids, in the order of {@code requests}
+     */
+    @Transactional
+    public List<Long> insert(List<CustomerRequest> requests) {
+        var dateCreated = LocalDateTime.now();
+        List<Customer> customers = new ArrayList<>(requests.size());
+        List<LoanLimit> loanLimits = new ArrayList<>(requests.size());
+        List<CustomerNotificationPreferences> preferences = new ArrayList<>(requests.size());
+
+        for (CustomerRequest request : requests) {
+            Customer customer = new Customer();
+            customer.setFirstName(request.getFirstName());
+            customer.setLastName(request.getLastName());
+            customer.setNationalId(request.getNationalId());
+            customer.setEmail(request.getEmail());
+            customer.setPhoneNumber(request.getPhoneNumber());
+            customer.setDateCreated(dateCreated);
+            customer.setActive(1);
+            customer.setIncome(request.getIncome());
+            customers.add(customer);
+
+            loanLimits.add(LoanLimit.builder()
+                    .customer(customer)
+                    .creditLimit(appConfig.getDefaultLoanLimit())
+                    .availableLimit(BigDecimal.ZERO)
+                    .currency(request.getCurrency())
+                    .build());
+
+            CustomerNotificationPreferencesDto prefs = request.getCustomerNotificationPreferencesDto();
+            CustomerNotificationPreferences preference = new CustomerNotificationPreferences();
+            preference.setCustomer(customer);
+            preference.setSmsEnabled(prefs.isSmsEnabled());
+            preference.setEmailEnabled(prefs.isEmailEnabled());
+            preference.setPushNotificationEnabled(prefs.isPushNotificationEnabled());
+            preferences.add(preference);
+        }
+
+        customerRepository.saveAll(customers);
+        loanLimitRepository.saveAll(loanLimits);
+        preferencesRepository.saveAll(preferences);
+        // Write now and drop the managed copies, so a chunk's entities do not outlive it
+        entityManager.flush();
+        entityManager.clear();
+        var customerIds = customers.stream().map(Customer::getId).toList();
+        loanLimitLedger.open(customerIds);
+        return customerIds;
+    }
+}
@@ -1,11 +1,24 @@
 package com.example.customerservice.repository;
 
+import com.example.customerservice.dto.CustomerNotificationChannels;
 import com.example.customerservice.model.CustomerNotificationPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
 public interface CustomerNotificationPreferenceRepository extends JpaRepository<CustomerNotificationPreferences,Long> {
     Optional<CustomerNotificationPreferences> findByCustomerId(Long id);
+
+    @Query("""
+     SELECT new com.example.customerservice.dto.CustomerNotificationChannels(
+         p.customer.id, p.smsEnabled, p.emailEnabled, p.pushNotificationEnabled)
+     FROM CustomerNotificationPreferences p
+     WHERE p.customer.id IN :customerIds
+    """)
+    List<CustomerNotificationChannels> findChannelsByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
 }
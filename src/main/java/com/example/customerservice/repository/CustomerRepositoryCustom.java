@@ -0,0 +1,36 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.dto.CustomerListingView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Customer listing queries whose WHERE clause depends on which filters are set, implemented in
+ * {@link CustomerRepositoryImpl}. A {@code null} filter is left out of the query entirely.
+ */
+public interface CustomerRepositoryCustom {
+
+    Page<CustomerListingView> getCustomers(String phoneNumber, String nationalId, Integer active, Integer customerId,
+                                           Pageable pageable);
+
+    /**
+     * Keyset page ordered by {@code dateCreated DESC, id DESC}, starting after {@code (afterDateCreated, afterId)}
+     * or from the top when {@code afterDateCreated} is {@code null}.
+     */
+    List<CustomerListingView> getCustomersAfter(String phoneNumber, String nationalId, Integer active,
+                                                Integer customerId, LocalDateTime afterDateCreated,
+                                                Long afterId, Limit limit);
+
+    /**
+     * Unpaged, forward-only read of the listing rows for exports. The {@code Integer.MIN_VALUE} fetch size makes
+     * Connector/J stream the result set row by row instead of buffering it; the stream must be consumed and
+     * closed inside a read-only transaction, and the connection cannot run other statements until then.
+     */
+    Stream<CustomerListingView> streamCustomers(String phoneNumber, String nationalId, Integer active,
+                                                Integer customerId);
+}
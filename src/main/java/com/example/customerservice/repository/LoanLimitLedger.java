@@ -0,0 +1,222 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.LoanLimitLedgerBalance;
+import com.example.customerservice.dto.LoanLimitLedgerEntryDto;
+import com.example.customerservice.enums.LoanLimitLedgerEntryType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Append-only ledger of the changes to {@code loan_limits.available_limit}, and the source of truth for it. Every
+ * writer moves the available limit and bumps {@code loan_limits.ledger_sequence} in the same UPDATE, then records
+ * the entry for the new head: either the amount it moved the limit by ({@link #recordDeltas}) or, for percentage
+ * nudges, the factor it applied ({@link #recordFactors}), which the ledger applies to its own previous balance. An
+ * entry's balance is the previous entry's balance plus its amount, never the stored column, so a write that
+ * bypassed the ledger stays visible as drift until {@link #rebuild} resets it. Appending is a primary key lookup
+ * plus one insert, whatever the length of the history, and the row lock taken by the UPDATE orders concurrent
+ * appends for the same customer.
+ *
+ * <p>Every {@code loan.limit.ledger.snapshotInterval}-th entry also stores a snapshot of the ledger balance, so
+ * {@link #rebuild} replays at most that many entries.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LoanLimitLedger {
+    private final JdbcTemplate jdbcTemplate;
+    private final AppConfig appConfig;
+
+    /**
+     * Opens the ledger of a limit that has no entries yet with its current available limit.
+     */
+    private static final String OPEN_SQL = """
+            INSERT INTO loan_limit_ledger (customer_id, sequence, entry_type, loan_id, amount, balance_after, created_at)
+            SELECT l.customer_id, l.ledger_sequence, 'OPENING', NULL,
+                   COALESCE(l.available_limit, 0), COALESCE(l.available_limit, 0), NOW(6)
+            FROM loan_limits l
+            WHERE l.customer_id = ?
+            AND NOT EXISTS (SELECT 1 FROM loan_limit_ledger e WHERE e.customer_id = l.customer_id)
+            """;
+
+    /**
+     * Entry for the current head, {@code %1$s} being its amount. Every bump of {@code ledger_sequence} appends
+     * exactly one entry, so the previous entry is found by a primary key lookup at {@code ledger_sequence - 1}.
+     * A limit written before its ledger was opened has no such entry, and its first entry opens the ledger with
+     * the whole stored balance instead.
+     */
+    private static final String APPEND_SQL = """
+            INSERT INTO loan_limit_ledger (customer_id, sequence, entry_type, loan_id, amount, balance_after, created_at)
+            SELECT l.customer_id, l.ledger_sequence, CASE WHEN p.customer_id IS NULL THEN 'OPENING' ELSE ? END, ?,
+                   CASE WHEN p.customer_id IS NULL THEN COALESCE(l.available_limit, 0) ELSE %1$s END,
+                   CASE WHEN p.customer_id IS NULL THEN COALESCE(l.available_limit, 0) ELSE p.balance_after + %1$s END,
+                   NOW(6)
+            FROM loan_limits l
+            LEFT JOIN loan_limit_ledger p ON p.customer_id = l.customer_id AND p.sequence = l.ledger_sequence - 1
+            WHERE l.customer_id = ?
+            """;
+
+    private static final String APPEND_DELTA_SQL = APPEND_SQL.formatted("?");
+
+    /**
+     * The same rounding and floor at zero as the nudge applied to the stored limit, applied to the ledger balance.
+     */
+    private static final String APPEND_FACTOR_SQL = APPEND_SQL.formatted(
+            "(GREATEST(ROUND(p.balance_after * ?, 2), 0) - p.balance_after)");
+
+    private static final String SNAPSHOT_SQL = """
+            INSERT INTO loan_limit_snapshots (customer_id, sequence, balance, created_at)
+            SELECT e.customer_id, e.sequence, e.balance_after, NOW(6)
+            FROM loan_limits l
+            JOIN loan_limit_ledger e ON e.customer_id = l.customer_id AND e.sequence = l.ledger_sequence
+            WHERE l.customer_id = ? AND l.ledger_sequence > 0 AND MOD(l.ledger_sequence, ?) = 0
+            """;
+
+    private static final String APPLY_DELTA_SQL = """
+            UPDATE loan_limits
+            SET available_limit = COALESCE(available_limit, 0) + ?,
+                ledger_sequence = ledger_sequence + 1,
+                version = version + 1
+            WHERE customer_id = ?
+            """;
+
+    private static final RowMapper<LoanLimitLedgerEntryDto> ENTRY_MAPPER = (rs, rowNum) -> new LoanLimitLedgerEntryDto(
+            rs.getLong("customer_id"),
+            rs.getLong("sequence"),
+            LoanLimitLedgerEntryType.valueOf(rs.getString("entry_type")),
+            rs.getObject("loan_id", Long.class),
+            rs.getBigDecimal("amount"),
+            rs.getBigDecimal("balance_after"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    /**
+     * Start of the ledger when no snapshot has been taken yet; the opening entry at sequence 0 is replayed too.
+     */
+    private static final Snapshot NO_SNAPSHOT = new Snapshot(-1, BigDecimal.ZERO);
+
+    /**
+     * Opens the ledgers of newly inserted limits. The limits must already be flushed.
+     */
+    @Transactional
+    public void open(Collection<Long> customerIds) {
+        jdbcTemplate.batchUpdate(OPEN_SQL, customerIds.stream().map(customerId -> new Object[]{customerId}).toList());
+    }
+
+    /**
+     * Moves the available limit by {@code delta} and records it.
+     *
+     * @return the new entry, or empty when the customer has no loan limit
+     */
+    @Transactional
+    public Optional<LoanLimitLedgerEntryDto> append(Long customerId, LoanLimitLedgerEntryType type, Long loanId,
+                                                    BigDecimal delta) {
+        if (jdbcTemplate.update(APPLY_DELTA_SQL, delta, customerId) == 0) {
+            return Optional.empty();
+        }
+        recordDeltas(Map.of(customerId, delta), type, loanId);
+        return Optional.of(jdbcTemplate.queryForObject("""
+                SELECT e.* FROM loan_limit_ledger e
+                JOIN loan_limits l ON l.customer_id = e.customer_id AND l.ledger_sequence = e.sequence
+                WHERE e.customer_id = ?
+                """, ENTRY_MAPPER, customerId));
+    }
+
+    /**
+     * Records the amount each customer's limit has just been moved by. Must run in the transaction that moved the
+     * available limit and bumped {@code ledger_sequence}, once per bump.
+     */
+    @Transactional
+    public void recordDeltas(Map<Long, BigDecimal> deltaByCustomer, LoanLimitLedgerEntryType type, Long loanId) {
+        append(APPEND_DELTA_SQL, deltaByCustomer, type, loanId);
+    }
+
+    /**
+     * Records the percentage nudge each customer's limit has just been multiplied by; the entry's amount is the
+     * nudge applied to the ledger balance. Same transaction rules as {@link #recordDeltas}.
+     */
+    @Transactional
+    public void recordFactors(Map<Long, BigDecimal> factorByCustomer, LoanLimitLedgerEntryType type) {
+        append(APPEND_FACTOR_SQL, factorByCustomer, type, null);
+    }
+
+    private void append(String sql, Map<Long, BigDecimal> valueByCustomer, LoanLimitLedgerEntryType type,
+                        Long loanId) {
+        if (valueByCustomer.isEmpty()) {
+            return;
+        }
+        // In customer id order, like the limit updates before them
+        var sorted = new TreeMap<>(valueByCustomer);
+        jdbcTemplate.batchUpdate(sql, sorted.entrySet().stream()
+                .map(entry -> new Object[]{type.name(), loanId, entry.getValue(), entry.getValue(), entry.getKey()})
+                .toList());
+        jdbcTemplate.batchUpdate(SNAPSHOT_SQL, sorted.keySet().stream()
+                .map(customerId -> new Object[]{customerId, appConfig.getLedgerSnapshotInterval()}).toList());
+    }
+
+    /**
+     * Recomputes the customer's available limit from the latest snapshot and the entries after it, and writes it
+     * back if the stored value differs. The limit row stays locked meanwhile, so no entry is appended halfway.
+     *
+     * @return empty when the customer has no loan limit
+     */
+    @Transactional
+    public Optional<LoanLimitLedgerBalance> rebuild(Long customerId) {
+        var head = jdbcTemplate.query("""
+                        SELECT ledger_sequence, COALESCE(available_limit, 0) AS available_limit
+                        FROM loan_limits WHERE customer_id = ? FOR UPDATE
+                        """,
+                (rs, rowNum) -> new Snapshot(rs.getLong("ledger_sequence"), rs.getBigDecimal("available_limit")),
+                customerId).stream().findFirst();
+        if (head.isEmpty()) {
+            return Optional.empty();
+        }
+        long sequence = head.get().sequence();
+        var stored = head.get().balance();
+
+        var snapshot = jdbcTemplate.query("""
+                        SELECT sequence, balance FROM loan_limit_snapshots
+                        WHERE customer_id = ? AND sequence <= ?
+                        ORDER BY sequence DESC
+                        LIMIT 1
+                        """,
+                (rs, rowNum) -> new Snapshot(rs.getLong("sequence"), rs.getBigDecimal("balance")),
+                customerId, sequence).stream().findFirst().orElse(NO_SNAPSHOT);
+
+        var replay = jdbcTemplate.queryForObject("""
+                        SELECT COUNT(*) AS entries, COALESCE(SUM(amount), 0) AS amount FROM loan_limit_ledger
+                        WHERE customer_id = ? AND sequence > ? AND sequence <= ?
+                        """,
+                (rs, rowNum) -> new Replay(rs.getLong("entries"), rs.getBigDecimal("amount")),
+                customerId, snapshot.sequence(), sequence);
+        if (snapshot == NO_SNAPSHOT && replay.entries() == 0) {
+            // Nothing recorded yet: the stored value is all there is to go by
+            open(List.of(customerId));
+            return Optional.of(new LoanLimitLedgerBalance(customerId, sequence, NO_SNAPSHOT.sequence(), 0, stored,
+                    false));
+        }
+
+        var balance = snapshot.balance().add(replay.amount());
+        boolean repaired = balance.compareTo(stored) != 0;
+        if (repaired) {
+            jdbcTemplate.update("UPDATE loan_limits SET available_limit = ?, version = version + 1 WHERE customer_id = ?",
+                    balance, customerId);
+        }
+        return Optional.of(new LoanLimitLedgerBalance(customerId, sequence, snapshot.sequence(), replay.entries(),
+                balance, repaired));
+    }
+
+    private record Snapshot(long sequence, BigDecimal balance) {
+    }
+
+    private record Replay(long entries, BigDecimal amount) {
+    }
+}
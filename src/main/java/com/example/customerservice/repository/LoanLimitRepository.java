@@ -7,7 +7,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 
 
-public interface LoanLimitRepository extends JpaRepository<LoanLimit, Integer> {
+public interface LoanLimitRepository extends JpaRepository<LoanLimit, Integer>, LoanLimitRepositoryCustom {
    Optional<LoanLimit> findByCustomerId(Long id);
 
 }
@@ -0,0 +1,38 @@
+package com.example.customerservice.repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Percentage nudges of the available limit, implemented in {@link LoanLimitRepositoryImpl} with plain JDBC so that
+ * the adjusted values come back from the statement that locks the rows.
+ */
+public interface LoanLimitRepositoryCustom {
+
+    /**
+     * Multiplies the customer's available limit by {@code factor}, rounded to the column scale and clamped at zero.
+     * The limit is only written, with its version and ledger sequence bumped, when that changes its value; the
+     * caller then records the change with {@link LoanLimitLedger#recordFactors}.
+     *
+     * @return the limit before and after the nudge, or empty when the customer has no limit
+     */
+    Optional<FactorAdjustment> applyAdjustmentFactor(Long customerId, BigDecimal factor);
+
+    /**
+     * {@link #applyAdjustmentFactor} for many customers at once: one locking read for all of them, in ascending
+     * customer id order, and one JDBC batch for the limits that change.
+     *
+     * @return the adjustment of every customer that has a limit
+     */
+    Map<Long, FactorAdjustment> applyAdjustmentFactors(Map<Long, BigDecimal> factorByCustomer);
+
+    /**
+     * A null available limit reads as zero.
+     */
+    record FactorAdjustment(BigDecimal previous, BigDecimal adjusted) {
+        public boolean changed() {
+            return previous.compareTo(adjusted) != 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.customerservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Reads and locks the limits with their adjusted values computed by MySQL, then writes only the ones that change.
+ * The adjusted value is computed once, by the same expression for single events and batches, and with the same
+ * rounding the ledger applies to its own balance; the UPDATE just stores it. Rows are locked in ascending customer
+ * id order, so concurrent batches sharing customers queue behind each other instead of deadlocking.
+ */
+@RequiredArgsConstructor
+public class LoanLimitRepositoryImpl implements LoanLimitRepositoryCustom {
+    /**
+     * {@code %1$s} is the comma-separated {@code WHEN customer_id THEN factor} pairs, {@code %2$s} the id list.
+     */
+    private static final String LOCK_AND_ADJUST_SQL = """
+            SELECT customer_id, COALESCE(available_limit, 0) AS previous,
+                   GREATEST(ROUND(COALESCE(available_limit, 0) * CASE customer_id %1$s END, 2), 0) AS adjusted
+            FROM loan_limits
+            WHERE customer_id IN (%2$s)
+            ORDER BY customer_id
+            FOR UPDATE
+            """;
+
+    private static final String STORE_ADJUSTED_SQL = """
+            UPDATE loan_limits
+            SET available_limit = ?,
+                ledger_sequence = ledger_sequence + 1,
+                version = version + 1
+            WHERE customer_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Optional<FactorAdjustment> applyAdjustmentFactor(Long customerId, BigDecimal factor) {
+        return Optional.ofNullable(applyAdjustmentFactors(Map.of(customerId, factor)).get(customerId));
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, FactorAdjustment> applyAdjustmentFactors(Map<Long, BigDecimal> factorByCustomer) {
+        if (factorByCustomer.isEmpty()) {
+            return Map.of();
+        }
+        var sorted = new TreeMap<>(factorByCustomer);
+        List<Object> arguments = new ArrayList<>(sorted.size() * 3);
+        sorted.forEach((customerId, factor) -> {
+            arguments.add(customerId);
+            arguments.add(factor);
+        });
+        arguments.addAll(sorted.keySet());
+        var sql = LOCK_AND_ADJUST_SQL.formatted(
+                String.join(" ", Collections.nCopies(sorted.size(), "WHEN ? THEN ?")),
+                String.join(", ", Collections.nCopies(sorted.size(), "?")));
+
+        Map<Long, FactorAdjustment> adjustments = new TreeMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            adjustments.put(rs.getLong("customer_id"),
+                    new FactorAdjustment(rs.getBigDecimal("previous"), rs.getBigDecimal("adjusted")));
+        }, arguments.toArray());
+
+        List<Object[]> changed = adjustments.entrySet().stream()
+                .filter(entry -> entry.getValue().changed())
+                .map(entry -> new Object[]{entry.getValue().adjusted(), entry.getKey()})
+                .toList();
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(STORE_ADJUSTED_SQL, changed);
+        }
+        return adjustments;
+    }
+}
@@ -1,9 +1,36 @@
 package com.example.customerservice.repository;
 
 
+import com.example.customerservice.dto.LoanExposureView;
+import com.example.customerservice.enums.LoanState;
 import com.example.customerservice.model.Loan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface LoanRepository extends JpaRepository<Loan, Long> {
 
+    boolean existsByIdAndCustomerId(Long id, Long customerId);
+
+    /**
+     * A customer's active loans grouped by state and product, computed by the database over
+     * {@code idx_loans_customer_portfolio}; no loan entity is loaded. The product is grouped by its id so the
+     * query never joins {@code loan_products}.
+     */
+    @Query("""
+     SELECT new com.example.customerservice.dto.LoanExposureView(
+         l.state, l.loanProduct.id, COUNT(l), SUM(l.amountDue),
+         SUM(CASE WHEN l.state = :overdue OR (l.state = :open AND l.dueDate < :asOf) THEN 1 ELSE 0 END),
+         SUM(CASE WHEN l.state = :overdue OR (l.state = :open AND l.dueDate < :asOf) THEN l.amountDue END))
+     FROM Loan l
+     WHERE l.customer.id = :customerId AND l.active = 1
+     GROUP BY l.state, l.loanProduct.id
+    """)
+    List<LoanExposureView> summarizeExposure(@Param("customerId") Long customerId,
+                                             @Param("asOf") LocalDate asOf,
+                                             @Param("open") LoanState open,
+                                             @Param("overdue") LoanState overdue);
 }
@@ -0,0 +1,63 @@
+package com.example.customerservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Rows of {@code notification_outbox}: the JSON body of a notification, the type id its consumers bind it by and
+ * the routing key it goes out with on the notification exchange.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationOutboxRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public record OutboxMessage(Long id, String routingKey, String typeId, String payload) {
+    }
+
+    public void insert(List<OutboxMessage> messages) {
+        jdbcTemplate.batchUpdate("""
+                        INSERT INTO notification_outbox (routing_key, type_id, payload, created_at)
+                        VALUES (?, ?, ?, NOW(6))
+                        """,
+                messages.stream()
+                        .map(message -> new Object[]{message.routingKey(), message.typeId(), message.payload()})
+                        .toList());
+    }
+
+    /**
+     * The oldest {@code limit} messages, locked until the caller's transaction ends. Rows another relay has
+     * locked are skipped, so relays on several instances publish disjoint batches.
+     */
+    public List<OutboxMessage> lockNextBatch(int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, routing_key, type_id, payload FROM notification_outbox
+                        ORDER BY id
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED
+                        """,
+                (rs, rowNum) -> new OutboxMessage(rs.getLong("id"), rs.getString("routing_key"),
+                        rs.getString("type_id"), rs.getString("payload")),
+                limit);
+    }
+
+    public void delete(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            namedParameterJdbcTemplate.update("DELETE FROM notification_outbox WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids));
+        }
+    }
+
+    public void countFailedAttempt(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            namedParameterJdbcTemplate.update("UPDATE notification_outbox SET attempts = attempts + 1 WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids));
+        }
+    }
+}
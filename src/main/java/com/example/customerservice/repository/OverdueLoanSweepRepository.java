@@ -0,0 +1,135 @@
+package com.example.customerservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loan scans, state transitions and checkpoints of the overdue sweep. A day's sweep is planned once as
+ * {@code overdue_sweep_checkpoints} rows, one per id range; every chunk then locks its partition's row, reads the
+ * next loans after {@code last_id} over {@code idx_loans_overdue_sweep} and moves the checkpoint forward.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OverdueLoanSweepRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * A partition's id range {@code (lastId, rangeEnd]} still to scan.
+     */
+    public record Partition(int partitionNo, long lastId, long rangeEnd) {
+    }
+
+    /**
+     * An open loan past its due date.
+     */
+    public record DueLoan(long id, long customerId, BigDecimal amountDue, LocalDate dueDate) {
+    }
+
+    /**
+     * Splits the ids of the loans due before {@code asOf} into {@code partitions} ranges of equal width, unless the
+     * day already has a plan. Racing instances insert the same primary keys, so only the first plan is kept.
+     *
+     * @return the number of partitions planned, 0 when the day was planned already or nothing is due
+     */
+    @Transactional
+    public int planIfAbsent(LocalDate sweepDate, LocalDate asOf, int partitions) {
+        Integer planned = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM overdue_sweep_checkpoints WHERE sweep_date = ?", Integer.class, sweepDate);
+        if (planned != null && planned > 0) {
+            return 0;
+        }
+        var bounds = jdbcTemplate.queryForMap("""
+                SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM loans
+                WHERE state = 'OPEN' AND active = 1 AND due_date < ?
+                """, asOf);
+        if (bounds.get("min_id") == null) {
+            return 0;
+        }
+        long first = ((Number) bounds.get("min_id")).longValue();
+        long last = ((Number) bounds.get("max_id")).longValue();
+        long width = Math.max(1, (last - first + partitions) / partitions);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int partitionNo = 0; partitionNo < partitions; partitionNo++) {
+            long rangeStart = first - 1 + partitionNo * width;
+            if (rangeStart >= last) {
+                break;
+            }
+            long rangeEnd = partitionNo == partitions - 1 ? last : Math.min(last, rangeStart + width);
+            rows.add(new Object[]{sweepDate, partitionNo, rangeStart, rangeEnd, rangeStart});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT IGNORE INTO overdue_sweep_checkpoints
+                    (sweep_date, partition_no, range_start, range_end, last_id, updated_at)
+                VALUES (?, ?, ?, ?, ?, NOW(6))
+                """, rows);
+        return rows.size();
+    }
+
+    public List<Integer> findUnfinishedPartitions(LocalDate sweepDate) {
+        return jdbcTemplate.queryForList("""
+                SELECT partition_no FROM overdue_sweep_checkpoints
+                WHERE sweep_date = ? AND completed = 0
+                ORDER BY partition_no
+                """, Integer.class, sweepDate);
+    }
+
+    /**
+     * Locks the partition's checkpoint for the rest of the transaction, so one chunk of it runs at a time across
+     * all instances.
+     *
+     * @return empty once the partition is completed
+     */
+    public Optional<Partition> lockPartition(LocalDate sweepDate, int partitionNo) {
+        return jdbcTemplate.query("""
+                        SELECT partition_no, last_id, range_end FROM overdue_sweep_checkpoints
+                        WHERE sweep_date = ? AND partition_no = ? AND completed = 0
+                        FOR UPDATE
+                        """,
+                (rs, rowNum) -> new Partition(rs.getInt("partition_no"), rs.getLong("last_id"), rs.getLong("range_end")),
+                sweepDate, partitionNo).stream().findFirst();
+    }
+
+    /**
+     * The next {@code limit} open loans of the partition due before {@code asOf}, in id order and locked until the
+     * chunk commits. Fewer than {@code limit} means the partition has no more.
+     */
+    public List<DueLoan> lockNextChunk(Partition partition, LocalDate asOf, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT id, customer_id, amount_due, due_date FROM loans
+                        WHERE state = 'OPEN' AND active = 1 AND id > ? AND id <= ? AND due_date < ?
+                        ORDER BY id
+                        LIMIT ?
+                        FOR UPDATE
+                        """,
+                (rs, rowNum) -> new DueLoan(rs.getLong("id"), rs.getLong("customer_id"),
+                        rs.getBigDecimal("amount_due"), rs.getObject("due_date", LocalDate.class)),
+                partition.lastId(), partition.rangeEnd(), asOf, limit);
+    }
+
+    public int markOverdue(List<Long> loanIds) {
+        return namedParameterJdbcTemplate.update("""
+                UPDATE loans SET state = 'OVERDUE', updated_at = NOW(6)
+                WHERE id IN (:ids) AND state = 'OPEN'
+                """, new MapSqlParameterSource("ids", loanIds));
+    }
+
+    public void advance(LocalDate sweepDate, int partitionNo, long lastId, int loansMarked, boolean completed) {
+        jdbcTemplate.update("""
+                UPDATE overdue_sweep_checkpoints
+                SET last_id = ?, loans_marked = loans_marked + ?, completed = ?, updated_at = NOW(6)
+                WHERE sweep_date = ? AND partition_no = ?
+                """, lastId, loansMarked, completed, sweepDate, partitionNo);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.model.ProcessedLoanLimitEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProcessedLoanLimitEventRepository extends JpaRepository<ProcessedLoanLimitEvent, String> {
+
+    /**
+     * Records the event and reports whether it was new in the same statement.
+     *
+     * @return 1 when the key was inserted, 0 when it had already been processed
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO processed_loan_limit_events (event_key, processed_at) VALUES (:eventKey, :processedAt)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("eventKey") String eventKey, @Param("processedAt") LocalDateTime processedAt);
+
+    @Query("SELECT e.eventKey FROM ProcessedLoanLimitEvent e WHERE e.eventKey IN :eventKeys")
+    List<String> findExistingKeys(@Param("eventKeys") Collection<String> eventKeys);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM processed_loan_limit_events WHERE processed_at < :cutoff LIMIT :batchSize",
+            nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
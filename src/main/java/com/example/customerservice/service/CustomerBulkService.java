@@ -0,0 +1,169 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.BulkCustomerRecordResult;
+import com.example.customerservice.dto.BulkCustomerResponse;
+import com.example.customerservice.dto.CustomerRequest;
+import com.example.customerservice.enums.BulkRecordStatus;
+import com.example.customerservice.repository.CustomerBulkWriter;
+import com.example.customerservice.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Onboards customers in bulk. The body is read as a stream of {@link CustomerRequest}s, either one JSON array or
+ * newline-delimited JSON, and handled in chunks of {@code customer.bulk.chunkSize}: each record is validated,
+ * the chunk's national IDs are checked against active customers with a single IN query, and the new customers
+ * are written by {@link CustomerBulkWriter} in one transaction per chunk. A failing chunk does not undo the
+ * chunks before it.
+ */
+@Service
+@Slf4j
+public class CustomerBulkService {
+    private final CustomerRepository customerRepository;
+    private final CustomerBulkWriter customerBulkWriter;
+    private final Validator validator;
+    private final AppConfig appConfig;
+    private final ObjectReader requestReader;
+
+    public CustomerBulkService(CustomerRepository customerRepository, CustomerBulkWriter customerBulkWriter,
+                               Validator validator, AppConfig appConfig, ObjectMapper objectMapper) {
+        this.customerRepository = customerRepository;
+        this.customerBulkWriter = customerBulkWriter;
+        this.validator = validator;
+        this.appConfig = appConfig;
+        this.requestReader = objectMapper.readerFor(CustomerRequest.class);
+    }
+
+    public BulkCustomerResponse createCustomers(InputStream body) throws IOException {
+        List<BulkCustomerRecordResult> results = new ArrayList<>();
+        Set<String> seenNationalIds = new HashSet<>();
+        List<PendingRecord> chunk = new ArrayList<>(appConfig.getBulkChunkSize());
+
+        int index = 0;
+        try (MappingIterator<CustomerRequest> requests = requestReader.readValues(body)) {
+            while (true) {
+                CustomerRequest request;
+                try {
+                    if (!requests.hasNextValue()) {
+                        break;
+                    }
+                    request = requests.nextValue();
+                } catch (JsonMappingException e) {
+                    // Well-formed JSON of the wrong shape: the iterator skips past it and carries on
+                    results.add(result(index++, null, BulkRecordStatus.INVALID, null, List.of("Unreadable record: " + e.getOriginalMessage())));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // The rest of the stream cannot be read reliably once the JSON itself is broken
+                    results.add(result(index, null, BulkRecordStatus.INVALID, null, List.of("Malformed record: " + e.getOriginalMessage())));
+                    break;
+                }
+
+                var errors = validate(request);
+                if (!errors.isEmpty()) {
+                    results.add(result(index, request.getNationalId(), BulkRecordStatus.INVALID, null, errors));
+                } else if (!seenNationalIds.add(request.getNationalId())) {
+                    results.add(result(index, request.getNationalId(), BulkRecordStatus.DUPLICATE, null,
+                            List.of("National ID appears earlier in this request")));
+                } else {
+                    chunk.add(new PendingRecord(index, request));
+                    if (chunk.size() == appConfig.getBulkChunkSize()) {
+                        writeChunk(chunk, results);
+                        chunk.clear();
+                    }
+                }
+                index++;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, results);
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        log.info("Bulk onboarding processed {} records", results.size());
+        return BulkCustomerResponse.builder()
+                .received(results.size())
+                .created(count(results, BulkRecordStatus.CREATED))
+                .duplicates(count(results, BulkRecordStatus.DUPLICATE))
+                .invalid(count(results, BulkRecordStatus.INVALID))
+                .failed(count(results, BulkRecordStatus.FAILED))
+                .results(results)
+                .build();
+    }
+
+    private void writeChunk(List<PendingRecord> chunk, List<BulkCustomerRecordResult> results) {
+        Set<String> existing = new HashSet<>(customerRepository.findActiveNationalIds(
+                chunk.stream().map(record -> record.request().getNationalId()).toList()));
+
+        List<PendingRecord> toInsert = new ArrayList<>(chunk.size());
+        for (PendingRecord record : chunk) {
+            if (existing.contains(record.request().getNationalId())) {
+                results.add(result(record.index(), record.request().getNationalId(), BulkRecordStatus.DUPLICATE, null,
+                        List.of("Customer with this National ID already exists.")));
+            } else {
+                toInsert.add(record);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        try {
+            var customerIds = customerBulkWriter.insert(toInsert.stream().map(PendingRecord::request).toList());
+            for (int i = 0; i < toInsert.size(); i++) {
+                var record = toInsert.get(i);
+                results.add(result(record.index(), record.request().getNationalId(), BulkRecordStatus.CREATED,
+                        customerIds.get(i), null));
+            }
+        } catch (Exception e) {
+            log.error("Bulk onboarding chunk of {} records failed: {}", toInsert.size(), e.getMessage());
+            for (PendingRecord record : toInsert) {
+                results.add(result(record.index(), record.request().getNationalId(), BulkRecordStatus.FAILED, null,
+                        List.of("Chunk could not be saved: " + e.getMessage())));
+            }
+        }
+    }
+
+    private List<String> validate(CustomerRequest request) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<CustomerRequest> violation : validator.validate(request)) {
+            errors.add(violation.getMessage());
+        }
+        if (request.getCustomerNotificationPreferencesDto() == null) {
+            errors.add("customerNotificationPreferencesDto cannot be null");
+        }
+        return errors;
+    }
+
+    private static BulkCustomerRecordResult result(int index, String nationalId, BulkRecordStatus status,
+                                                   Long customerId, List<String> errors) {
+        return BulkCustomerRecordResult.builder()
+                .index(index)
+                .nationalId(nationalId)
+                .status(status)
+                .customerId(customerId)
+                .errors(errors)
+                .build();
+    }
+
+    private static int count(List<BulkCustomerRecordResult> results, BulkRecordStatus status) {
+        return (int) results.stream().filter(result -> result.getStatus() == status).count();
+    }
+
+    private record PendingRecord(int index, CustomerRequest request) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.cache.LoanProductCatalog;
+import com.example.customerservice.dto.CustomerPortfolioResponse;
+import com.example.customerservice.dto.CustomerPortfolioResponse.ProductExposure;
+import com.example.customerservice.dto.CustomerPortfolioResponse.StateExposure;
+import com.example.customerservice.dto.LoanExposureView;
+import com.example.customerservice.enums.LoanState;
+import com.example.customerservice.exception.ResourceNotFoundException;
+import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.repository.LoanRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-customer loan exposure. The database groups the customer's loans by state and product in one query, so the
+ * cost depends on the number of distinct (state, product) pairs rather than on the number of loans; the totals
+ * and the per-state and per-product breakdowns are then folded from those few rows. Product names come from the
+ * in-memory {@link LoanProductCatalog}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerPortfolioService {
+    /**
+     * States whose amount due is still expected to be collected.
+     */
+    private static final Set<LoanState> OUTSTANDING = EnumSet.of(LoanState.OPEN, LoanState.OVERDUE);
+
+    private final CustomerRepository customerRepository;
+    private final LoanRepository loanRepository;
+    private final LoanProductCatalog loanProductCatalog;
+
+    @Timed(CustomerService.TIMER)
+    @Transactional(readOnly = true)
+    public CustomerPortfolioResponse getPortfolio(Long customerId) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new ResourceNotFoundException("customer with id:  " + customerId + " not found");
+        }
+        var asOf = LocalDate.now();
+        var rows = loanRepository.summarizeExposure(customerId, asOf, LoanState.OPEN, LoanState.OVERDUE);
+
+        Map<LoanState, StateExposure> byState = new EnumMap<>(LoanState.class);
+        Map<Long, ProductExposure> byProduct = new TreeMap<>();
+        long totalLoans = 0;
+        long overdueLoans = 0;
+        var outstandingAmountDue = BigDecimal.ZERO;
+        var overdueAmountDue = BigDecimal.ZERO;
+        for (LoanExposureView row : rows) {
+            totalLoans += row.loans();
+            overdueLoans += row.overdueLoans();
+            overdueAmountDue = overdueAmountDue.add(row.overdueAmountDue());
+            var outstanding = OUTSTANDING.contains(row.state()) ? row.amountDue() : BigDecimal.ZERO;
+            outstandingAmountDue = outstandingAmountDue.add(outstanding);
+
+            var state = byState.computeIfAbsent(row.state(), s -> new StateExposure(s, 0, BigDecimal.ZERO));
+            state.setLoans(state.getLoans() + row.loans());
+            state.setAmountDue(state.getAmountDue().add(row.amountDue()));
+
+            var product = byProduct.computeIfAbsent(row.loanProductId(),
+                    id -> new ProductExposure(id, null, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO));
+            product.setLoans(product.getLoans() + row.loans());
+            product.setOutstandingAmountDue(product.getOutstandingAmountDue().add(outstanding));
+            product.setOverdueLoans(product.getOverdueLoans() + row.overdueLoans());
+            product.setOverdueAmountDue(product.getOverdueAmountDue().add(row.overdueAmountDue()));
+        }
+
+        if (!byProduct.isEmpty()) {
+            var products = loanProductCatalog.findAllById(byProduct.keySet());
+            byProduct.values().forEach(product -> {
+                var catalogProduct = products.get(product.getLoanProductId());
+                product.setLoanProductName(catalogProduct == null ? null : catalogProduct.name());
+            });
+        }
+
+        return CustomerPortfolioResponse.builder()
+                .customerId(customerId)
+                .asOf(asOf)
+                .totalLoans(totalLoans)
+                .outstandingAmountDue(outstandingAmountDue)
+                .overdueLoans(overdueLoans)
+                .overdueAmountDue(overdueAmountDue)
+                .byState(List.copyOf(byState.values()))
+                .byProduct(byProduct.values().stream()
+                        .sorted(Comparator.comparing(ProductExposure::getOutstandingAmountDue).reversed())
+                        .toList())
+                .build();
+    }
+}
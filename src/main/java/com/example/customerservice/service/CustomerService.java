@@ -1,7 +1,10 @@
 package com.example.customerservice.service;
 
+import com.example.customerservice.cache.CustomerCache;
+import com.example.customerservice.cache.CustomerChangedEvent;
 import com.example.customerservice.config.AppConfig;
 import com.example.customerservice.dto.*;
+import com.example.customerservice.enums.LoanLimitLedgerEntryType;
 import com.example.customerservice.exception.ResourceNotFoundException;
 import com.example.customerservice.helper.LoanLimitHelper;
 import com.example.customerservice.model.Customer;
@@ -9,14 +12,18 @@ import com.example.customerservice.model.CustomerNotificationPreferences;
 import com.example.customerservice.model.LoanLimit;
 import com.example.customerservice.repository.CustomerNotificationPreferenceRepository;
 import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.repository.LoanLimitLedger;
 import com.example.customerservice.repository.LoanLimitRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +33,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,11 +42,24 @@ import java.util.stream.Collectors;
 public class CustomerService {
     private final CustomerRepository customerRepository;
     private final LoanLimitRepository loanLimitRepository;
+    private final LoanLimitLedger loanLimitLedger;
     private final AppConfig appConfig;
     private final CustomerNotificationPreferenceRepository customerPreferencesRepository;
+    private final CustomerCache customerCache;
+    private final ApplicationEventPublisher eventPublisher;
     public static final String SORT_BY_DATE_CREATED = "dateCreated";
+    /**
+     * Newest first; the id breaks ties so offset pages are stable, and the order matches
+     * {@code idx_customers_active_date_created_id} read backwards.
+     */
+    public static final Sort LISTING_SORT = Sort.by(Sort.Order.desc(SORT_BY_DATE_CREATED), Sort.Order.desc("id"));
+    /**
+     * Timer of the service entry points, tagged with {@code class} and {@code method} by the {@code TimedAspect}.
+     */
+    public static final String TIMER = "customer.service";
 
 
+    @Timed(TIMER)
     @Transactional
     public CustomerResponseDto createCustomer(CustomerRequest request) {
         log.info("Create customer request: {}", request);
@@ -76,7 +97,10 @@ public class CustomerService {
         // Save preferences
         var customerPreference = customerPreferencesRepository.save(preferences);
 
-        var loanLimits = loanLimitRepository.save(loanLimit);
+        // Flushed so the ledger can be opened with it
+        var loanLimits = loanLimitRepository.saveAndFlush(loanLimit);
+        loanLimitLedger.open(List.of(customer.getId()));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customer.getId()));
         return CustomerResponseDto.builder()
                 .id(customer.getId())
                 .firstName(customer.getFirstName())
@@ -98,13 +122,22 @@ public class CustomerService {
     }
 
 
+    /**
+     * Served from {@link CustomerCache}; the returned entity is shared and must be treated as read-only.
+     */
     public Customer getCustomerById(Long customerId) {
-        return customerRepository.findById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("customer with id:  " + customerId + " not found"));
+        return customerCache.get(customerId).customer();
+    }
+
+    public CustomerResponseDto getCustomerDetails(Long customerId) {
+        return customerCache.get(customerId).toResponseDto();
     }
 
+    @Timed(TIMER)
     public ApiResponse<?>  deactivateCustomer(Long customerId) {
-        var customer = getCustomerById(customerId);
+        // Write path: work on a fresh copy rather than the shared cached entity
+        var customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("customer with id:  " + customerId + " not found"));
         if (customer.getActive() == 0) {
             return new ApiResponse<>(false, "Customer is already inactive.");
         }
@@ -114,23 +147,45 @@ public class CustomerService {
         customer.setDateModified(LocalDateTime.now());
 
         customerRepository.save(customer);
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
         return new ApiResponse<>(true, "successfully deactivated loan product: "+customer.getLastName());
 
     }
 
+    /**
+     * A changed available limit is recorded in the {@link LoanLimitLedger} as an adjustment.
+     */
+    @Timed(TIMER)
+    @Transactional
     public void setLoanLimit(Long customerId, LoanLimitsDto loanLimitsDto) {
         LoanLimit loanLimit = loanLimitRepository.findByCustomerId(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Loan limit not found for customer"));
-        var customer = getCustomerById(customerId);
+        // Write path: read from the repository, never through the shared cache
+        var customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("customer with id:  " + customerId + " not found"));
+        var previous = loanLimit.getAvailableLimit();
+        var requested = loanLimitsDto.getAvailableLimit();
+        boolean availableLimitChanged = previous == null || requested == null
+                ? previous != requested : previous.compareTo(requested) != 0;
         loanLimit.setAvailableLimit(loanLimitsDto.getAvailableLimit());
         loanLimit.setCreditLimit(loanLimitsDto.getCreditLimit());
         loanLimit.setCurrency(customer.getCurrency());
-        loanLimitRepository.save(loanLimit);
+        if (availableLimitChanged) {
+            loanLimit.setLedgerSequence(loanLimit.getLedgerSequence() + 1);
+        }
+        // Published before the flush so that the entry is evicted even when it fails, e.g. on a stale version
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        loanLimitRepository.saveAndFlush(loanLimit);
+        if (availableLimitChanged) {
+            var delta = (requested == null ? BigDecimal.ZERO : requested)
+                    .subtract(previous == null ? BigDecimal.ZERO : previous);
+            loanLimitLedger.recordDeltas(Map.of(customerId, delta), LoanLimitLedgerEntryType.ADJUSTMENT, null);
+        }
     }
 
+    @Timed(TIMER)
     public ApiResponse<?> getCustomers(@Valid CustomerFilterRequest request) {
-        Sort sort = Sort.by(SORT_BY_DATE_CREATED).descending();
-        Pageable pageable = PageRequest.of(request.getPage() - 1, request.getSize(), sort);
+        Pageable pageable = PageRequest.of(request.getPage() - 1, request.getSize(), LISTING_SORT);
 
         // Log query parameters
         log.info("Fetching loan products with filters - phoneNumber: {}, nationalID: {}, Active: {}, ID: {}, Page: {}, Size: {}",
@@ -143,7 +198,7 @@ public class CustomerService {
         );
 
         // Filter
-        Page<Customer> customerPage = customerRepository.getCustomers(
+        Page<CustomerListingView> customerPage = customerRepository.getCustomers(
                 request.getPhoneNumber(),
                 request.getNationalId(),
                 1,
@@ -151,35 +206,9 @@ public class CustomerService {
                 pageable
         );
 
-        // Transform Customer entities into DTOs
+        // Rows arrive as read-only projections, only the JSON shape is built here
         List<CustomerResponseDto> customerResponses = customerPage.getContent().stream()
-                .map(customer -> {
-                    // Fetch loan limits
-                    LoanLimit loanLimits = loanLimitRepository.findByCustomerId(customer.getId())
-                            .orElse(null);
-                    var loanLimitsDto = LoanLimitsDto.builder().availableLimit(loanLimits.getAvailableLimit())
-                            .creditLimit(loanLimits.getCreditLimit()).currency(loanLimits.getCurrency()).build();
-
-                    // Fetch customer preferences
-                    var preferences = customerPreferencesRepository
-                            .findByCustomerId(customer.getId()).orElse(null);
-                    var customerNotificationPreference = CustomerNotificationPreferencesDto.builder()
-                            .pushNotificationEnabled(preferences.isPushNotificationEnabled())
-                            .emailEnabled(preferences.isEmailEnabled())
-                            .smsEnabled(preferences.isSmsEnabled()).build();
-
-                    return new CustomerResponseDto(
-                            customer.getId(),
-                            customer.getFirstName(),
-                            customer.getLastName(),
-                            customer.getEmail(),
-                            customer.getPhoneNumber(),
-                            customer.getNationalId(),
-                            customer.getIncome(),
-                            loanLimitsDto,
-                            customerNotificationPreference
-                    );
-                })
+                .map(CustomerListingView::toResponseDto)
                 .collect(Collectors.toList());
 
         return new ApiResponse<>(true, "Customers retrieved successfully", new PaginateObjectResponse<>(
@@ -190,4 +219,43 @@ public class CustomerService {
                 customerPage.getTotalPages(),
                 customerPage.isLast()));
     }
+
+    /**
+     * Keyset variant of {@link #getCustomers(CustomerFilterRequest)}: seeks past the (dateCreated, id) of the
+     * cursor instead of skipping an offset and never runs a count query.
+     */
+    @Timed(TIMER)
+    public ApiResponse<?> getCustomersByCursor(@Valid CustomerFilterRequest request) {
+        var cursor = CustomerCursor.decode(request.getCursor());
+
+        log.info("Fetching customers by cursor with filters - phoneNumber: {}, nationalID: {}, Active: {}, ID: {}, Cursor: {}, Size: {}",
+                request.getPhoneNumber(),
+                request.getNationalId(),
+                request.getActive(),
+                request.getId(),
+                cursor,
+                request.getSize()
+        );
+
+        // Fetch one extra row to learn whether another page exists
+        List<CustomerListingView> customers = customerRepository.getCustomersAfter(
+                request.getPhoneNumber(),
+                request.getNationalId(),
+                1,
+                request.getId(),
+                cursor == null ? null : cursor.dateCreated(),
+                cursor == null ? null : cursor.id(),
+                Limit.of(request.getSize() + 1)
+        );
+
+        boolean last = customers.size() <= request.getSize();
+        List<CustomerListingView> page = last ? customers : customers.subList(0, request.getSize());
+        String nextCursor = last ? null : page.get(page.size() - 1).cursor().encode();
+
+        return new ApiResponse<>(true, "Customers retrieved successfully", new CursorPageResponse<>(
+                page.stream().map(CustomerListingView::toResponseDto).collect(Collectors.toList()),
+                request.getSize(),
+                nextCursor,
+                last));
+    }
 }
@@ -0,0 +1,78 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.cache.CustomerChangedEvent;
+import com.example.customerservice.dto.LoanLimitLedgerBalance;
+import com.example.customerservice.dto.LoanLimitLedgerEntryDto;
+import com.example.customerservice.dto.LoanLimitLedgerRequest;
+import com.example.customerservice.enums.LoanLimitLedgerEntryType;
+import com.example.customerservice.exception.ResourceNotFoundException;
+import com.example.customerservice.repository.LoanLimitLedger;
+import com.example.customerservice.repository.LoanRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records loan disbursements, repayments and manual adjustments against a customer's available limit through
+ * the {@link LoanLimitLedger}, and rebuilds the available limit from it. A disbursement takes its amount off the
+ * available limit and a repayment gives it back; the available limit may go negative when disbursements exceed it.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LoanLimitLedgerService {
+    private final LoanLimitLedger loanLimitLedger;
+    private final LoanRepository loanRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Timed(CustomerService.TIMER)
+    @Transactional
+    public LoanLimitLedgerEntryDto record(Long customerId, LoanLimitLedgerRequest request) {
+        var type = request.getEntryType();
+        var amount = request.getAmount();
+        switch (type) {
+            case DISBURSEMENT, REPAYMENT -> {
+                if (amount.signum() <= 0) {
+                    throw new IllegalArgumentException("amount must be positive for a " + type.getValue());
+                }
+                if (request.getLoanId() == null) {
+                    throw new IllegalArgumentException("loanId is required for a " + type.getValue());
+                }
+                if (!loanRepository.existsByIdAndCustomerId(request.getLoanId(), customerId)) {
+                    throw new ResourceNotFoundException("loan with id: " + request.getLoanId()
+                            + " not found for customer " + customerId);
+                }
+            }
+            case ADJUSTMENT -> {
+                if (amount.signum() == 0) {
+                    throw new IllegalArgumentException("amount of an adjustment cannot be zero");
+                }
+            }
+            case OPENING -> throw new IllegalArgumentException("opening entries are written by the ledger itself");
+        }
+
+        var delta = type == LoanLimitLedgerEntryType.DISBURSEMENT ? amount.negate() : amount;
+        var entry = loanLimitLedger.append(customerId, type, request.getLoanId(), delta)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan limit not found for customer"));
+        eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        log.info("Recorded {} of {} for customer {}, available limit {}", type.getValue(), amount, customerId,
+                entry.balanceAfter());
+        return entry;
+    }
+
+    @Timed(CustomerService.TIMER)
+    @Transactional
+    public LoanLimitLedgerBalance rebuild(Long customerId) {
+        var balance = loanLimitLedger.rebuild(customerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Loan limit not found for customer"));
+        if (balance.repaired()) {
+            log.warn("Available limit of customer {} had drifted from its ledger and was reset to {}", customerId,
+                    balance.availableLimit());
+            eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+        }
+        return balance;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.listener.LoanLimitRetryPublisher;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.GetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves parked loan limit events back onto the loan limit exchange, e.g. once the outage that exhausted their
+ * retries is over. Events are republished with a fresh retry budget and paced to {@code ratePerSecond}, so a
+ * large backlog does not land on the database all at once. Already applied events are still skipped by the
+ * listener's deduplication.
+ *
+ * <p>Replays run on a channel of their own in confirm mode, and an event is only acked off the parking queue once
+ * the broker has confirmed its republished copy; a nack or a confirm that does not arrive within
+ * {@code rabbitmq.loan.limit.replay.confirmTimeoutMs} stops the replay and leaves that event parked.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LoanLimitReplayService {
+    private final RabbitTemplate rabbitTemplate;
+    private final AppConfig appConfig;
+
+    /**
+     * @return the number of events replayed; fewer than {@code limit} when the parking queue ran empty
+     */
+    public int replayParkedEvents(int limit, int ratePerSecond) {
+        if (limit <= 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("limit and ratePerSecond must be positive");
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        Integer replayed = rabbitTemplate.execute(cachedChannel -> {
+            int count = 0;
+            long nextSlot = System.nanoTime();
+            // Not a cached channel: confirm mode would stay switched on for the template's other users
+            try (Channel channel = cachedChannel.getConnection().createChannel()) {
+                channel.confirmSelect();
+                while (count < limit) {
+                    GetResponse response = channel.basicGet(appConfig.getParkingQueue(), false);
+                    if (response == null) {
+                        break;
+                    }
+                    Map<String, Object> headers = response.getProps().getHeaders() == null
+                            ? new HashMap<>() : new HashMap<>(response.getProps().getHeaders());
+                    headers.remove(LoanLimitRetryPublisher.RETRY_COUNT_HEADER);
+                    AMQP.BasicProperties properties = response.getProps().builder().headers(headers).deliveryMode(2)
+                            .build();
+
+                    channel.basicPublish(appConfig.getExchange(), appConfig.getRoutingKey(), properties,
+                            response.getBody());
+                    // Only removed from the parking queue once the broker has taken the copy; throws on a nack or
+                    // timeout, and closing the channel then requeues the event
+                    channel.waitForConfirmsOrDie(appConfig.getReplayConfirmTimeoutMs());
+                    channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+                    count++;
+
+                    nextSlot += intervalNanos;
+                    long wait = nextSlot - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+            }
+            return count;
+        });
+
+        log.info("Replayed {} parked loan limit events from {}", replayed, appConfig.getParkingQueue());
+        return replayed == null ? 0 : replayed;
+    }
+}
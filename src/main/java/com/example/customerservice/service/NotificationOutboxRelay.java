@@ -0,0 +1,39 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.config.AppConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the notification outbox every {@code rabbitmq.notification.outbox.pollIntervalMs}, one
+ * {@link NotificationService#publishOutboxBatch} transaction per batch, for as long as whole batches are confirmed.
+ * A batch with unconfirmed rows ends the run; those rows are retried on the next one.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationOutboxRelay {
+    private final NotificationService notificationService;
+    private final AppConfig appConfig;
+
+    /**
+     * @return the number of notifications confirmed by this run
+     */
+    @Scheduled(fixedDelayString = "${rabbitmq.notification.outbox.pollIntervalMs}")
+    public long relay() {
+        long confirmed = 0;
+        int batch;
+        try {
+            do {
+                batch = notificationService.publishOutboxBatch();
+                confirmed += batch;
+            } while (batch == appConfig.getNotificationOutboxBatchSize());
+        } catch (AmqpException e) {
+            log.error("Relaying the notification outbox failed after {} notifications", confirmed, e);
+        }
+        return confirmed;
+    }
+}
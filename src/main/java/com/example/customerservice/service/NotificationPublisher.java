@@ -0,0 +1,202 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.config.AppConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes to the notification exchange with publisher confirms. {@link #publish} only buffers the message; a
+ * single publisher thread takes up to {@code batchSize} buffered messages at a time and sends them on one channel of
+ * a connection factory of its own, configured for correlated confirms, without waiting for the broker in between.
+ * Each message's future completes when the broker confirms it, or fails when it is nacked.
+ *
+ * <p>Backpressure: at most {@code maxPendingConfirms} messages may be unconfirmed. Once confirms lag that far the
+ * publisher thread stops sending, the buffer fills up and {@link #publish} callers wait up to
+ * {@code offerTimeoutMs} for room before their message is rejected.
+ *
+ * <p>Meters: {@code notification.published} by {@code outcome} (acked, nacked, rejected),
+ * {@code notification.confirm.latency} from {@link #publish} to the confirm, and the gauges
+ * {@code notification.buffer.size} and {@code notification.confirms.pending}.
+ */
+@Component
+@Slf4j
+public class NotificationPublisher {
+    private final AppConfig appConfig;
+    private final CachingConnectionFactory confirmingConnectionFactory;
+    private final RabbitTemplate rabbitTemplate;
+    private final BlockingQueue<Outbound> buffer;
+    private final Semaphore pendingConfirms;
+    private final int batchSize;
+    private final Counter acked;
+    private final Counter nacked;
+    private final Counter rejected;
+    private final Timer confirmLatency;
+    private volatile boolean running = true;
+    private Thread publisherThread;
+
+    private record Outbound(String routingKey, Object payload, CompletableFuture<Void> confirmed, long enqueuedAt) {
+    }
+
+    public NotificationPublisher(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter,
+                                 AppConfig appConfig, MeterRegistry meterRegistry) {
+        if (!(connectionFactory instanceof CachingConnectionFactory caching)) {
+            throw new IllegalStateException("Notification publishing needs a CachingConnectionFactory, found "
+                    + connectionFactory.getClass().getName());
+        }
+        this.appConfig = appConfig;
+        // Same broker settings, own connection: confirms stay off the listener and template connections
+        this.confirmingConnectionFactory = new CachingConnectionFactory(caching.getRabbitConnectionFactory());
+        this.confirmingConnectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        this.confirmingConnectionFactory.setConnectionNameStrategy(factory -> "notification-publisher");
+        this.rabbitTemplate = new RabbitTemplate(confirmingConnectionFactory);
+        this.rabbitTemplate.setMessageConverter(jsonMessageConverter);
+
+        this.buffer = new ArrayBlockingQueue<>(appConfig.getNotificationBufferSize());
+        this.pendingConfirms = new Semaphore(appConfig.getNotificationMaxPendingConfirms());
+        this.batchSize = Math.min(appConfig.getNotificationBatchSize(), appConfig.getNotificationMaxPendingConfirms());
+
+        this.acked = meterRegistry.counter("notification.published", "outcome", "acked");
+        this.nacked = meterRegistry.counter("notification.published", "outcome", "nacked");
+        this.rejected = meterRegistry.counter("notification.published", "outcome", "rejected");
+        this.confirmLatency = Timer.builder("notification.confirm.latency").register(meterRegistry);
+        Gauge.builder("notification.buffer.size", buffer, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("notification.confirms.pending", pendingConfirms,
+                permits -> appConfig.getNotificationMaxPendingConfirms() - permits.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        publisherThread = Thread.ofPlatform().name("notification-publisher").daemon().start(this::publishLoop);
+    }
+
+    /**
+     * Buffers a message for the notification exchange. The payload is converted to JSON, unless it already is a
+     * {@link Message}.
+     *
+     * @return completes once the broker has confirmed the message; fails when it is nacked, or when the buffer stayed
+     * full for {@code offerTimeoutMs}
+     */
+    public CompletableFuture<Void> publish(String routingKey, Object payload) {
+        var message = new Outbound(routingKey, payload, new CompletableFuture<>(), System.nanoTime());
+        try {
+            if (!running || !buffer.offer(message, appConfig.getNotificationOfferTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                message.confirmed().completeExceptionally(new AmqpException(
+                        running ? "Notification buffer is full" : "Notification publisher is stopped"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            message.confirmed().completeExceptionally(e);
+        }
+        return message.confirmed();
+    }
+
+    private void publishLoop() {
+        List<Outbound> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                var first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                // Waits here while confirms lag, which leaves new messages queued in the buffer
+                pendingConfirms.acquire(batch.size());
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(message -> message.confirmed().completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<Outbound> batch) {
+        int[] sent = {0};
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (Outbound message : batch) {
+                    var correlation = new CorrelationData();
+                    correlation.getFuture().whenComplete((confirm, error) -> {
+                        if (error == null && confirm.isAck()) {
+                            onConfirmed(message, null);
+                        } else {
+                            onConfirmed(message, new AmqpException("Notification was not confirmed: "
+                                    + (error != null ? error.getMessage() : confirm.getReason())));
+                        }
+                    });
+                    if (message.payload() instanceof Message prepared) {
+                        operations.send(appConfig.getNotificationExchange(), message.routingKey(), prepared,
+                                correlation);
+                    } else {
+                        operations.convertAndSend(appConfig.getNotificationExchange(), message.routingKey(),
+                                message.payload(), correlation);
+                    }
+                    sent[0]++;
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            // Sent messages are nacked when their channel closes; the rest never reached the broker
+            log.error("Publishing {} notifications failed after {}", batch.size(), sent[0], e);
+            for (Outbound message : batch.subList(sent[0], batch.size())) {
+                onConfirmed(message, e);
+            }
+        }
+    }
+
+    private void onConfirmed(Outbound message, Exception failure) {
+        pendingConfirms.release();
+        if (failure == null) {
+            acked.increment();
+            confirmLatency.record(System.nanoTime() - message.enqueuedAt(), TimeUnit.NANOSECONDS);
+            message.confirmed().complete(null);
+        } else {
+            nacked.increment();
+            message.confirmed().completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Publishes what is still buffered and waits, up to {@code confirmTimeoutMs}, for the outstanding confirms.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        long timeoutMs = appConfig.getNotificationConfirmTimeoutMs();
+        if (publisherThread != null) {
+            publisherThread.join(timeoutMs);
+        }
+        if (!pendingConfirms.tryAcquire(appConfig.getNotificationMaxPendingConfirms(), timeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn("Stopping with {} notifications unconfirmed",
+                    appConfig.getNotificationMaxPendingConfirms() - pendingConfirms.availablePermits());
+        }
+        confirmingConnectionFactory.destroy();
+    }
+}
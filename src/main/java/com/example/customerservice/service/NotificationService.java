@@ -0,0 +1,154 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.CustomerNotificationChannels;
+import com.example.customerservice.dto.LoanOverdueNotificationDto;
+import com.example.customerservice.enums.NotificationChannel;
+import com.example.customerservice.repository.CustomerNotificationPreferenceRepository;
+import com.example.customerservice.repository.NotificationOutboxRepository;
+import com.example.customerservice.repository.NotificationOutboxRepository.OutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Customer notifications, through a transactional outbox. {@link #enqueueLoansOverdue} fans every notification
+ * out to the channels its customer has enabled and writes one {@code notification_outbox} row per copy in the
+ * caller's transaction, so a notification exists exactly when the change it reports has committed, and no lock of
+ * that transaction is held for a broker round trip. {@link #publishOutboxBatch} then relays the rows through the
+ * {@link NotificationPublisher} and deletes those the broker confirmed. A row whose confirm is lost after the
+ * broker took it is published again, so a notification may repeat but is never lost.
+ *
+ * <p>Channels come from the customer's notification preferences, read for a whole batch in one query. A customer
+ * without preferences gets every channel; one who switched all channels off gets nothing, which
+ * {@code notification.suppressed} counts.
+ */
+@Service
+@Slf4j
+public class NotificationService {
+    private final NotificationPublisher notificationPublisher;
+    private final NotificationOutboxRepository outboxRepository;
+    private final CustomerNotificationPreferenceRepository preferenceRepository;
+    private final MessageConverter jsonMessageConverter;
+    private final AppConfig appConfig;
+    private final Counter suppressed;
+
+    public NotificationService(NotificationPublisher notificationPublisher,
+                               NotificationOutboxRepository outboxRepository,
+                               CustomerNotificationPreferenceRepository preferenceRepository,
+                               MessageConverter jsonMessageConverter, AppConfig appConfig,
+                               MeterRegistry meterRegistry) {
+        this.notificationPublisher = notificationPublisher;
+        this.outboxRepository = outboxRepository;
+        this.preferenceRepository = preferenceRepository;
+        this.jsonMessageConverter = jsonMessageConverter;
+        this.appConfig = appConfig;
+        this.suppressed = meterRegistry.counter("notification.suppressed");
+    }
+
+    /**
+     * Adds one copy of every notification per channel its customer has enabled to the outbox, within the
+     * caller's transaction.
+     */
+    @Transactional
+    public void enqueueLoansOverdue(List<LoanOverdueNotificationDto> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Map<Long, CustomerNotificationChannels> channelsByCustomer = preferenceRepository
+                .findChannelsByCustomerIdIn(notifications.stream()
+                        .map(LoanOverdueNotificationDto::getCustomerId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CustomerNotificationChannels::customerId, Function.identity()));
+
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (LoanOverdueNotificationDto notification : notifications) {
+            var channels = channelsByCustomer.get(notification.getCustomerId());
+            Set<NotificationChannel> enabled = channels == null
+                    ? EnumSet.allOf(NotificationChannel.class) : channels.enabled();
+            if (enabled.isEmpty()) {
+                suppressed.increment();
+                continue;
+            }
+            for (NotificationChannel channel : enabled) {
+                messages.add(outboxMessage(appConfig.getLoanOverdueNotificationRoutingKey(),
+                        notification.toBuilder().channel(channel).build()));
+            }
+        }
+        outboxRepository.insert(messages);
+    }
+
+    /**
+     * Publishes the oldest outbox rows not taken by another relay and waits up to {@code confirmTimeoutMs} for
+     * their confirms. Confirmed rows are deleted; the others stay for the next relay, with their attempt counted.
+     *
+     * @return the number of rows confirmed
+     */
+    @Transactional
+    public int publishOutboxBatch() {
+        var batch = outboxRepository.lockNextBatch(appConfig.getNotificationOutboxBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            confirms.add(notificationPublisher.publish(message.routingKey(), amqpMessage(message)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(appConfig.getNotificationConfirmTimeoutMs());
+        List<Long> confirmed = new ArrayList<>(batch.size());
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                confirms.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmed.add(batch.get(i).id());
+            } catch (ExecutionException | TimeoutException e) {
+                failed.add(batch.get(i).id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add(batch.get(i).id());
+            }
+        }
+        outboxRepository.delete(confirmed);
+        outboxRepository.countFailedAttempt(failed);
+        if (!failed.isEmpty()) {
+            log.warn("{} of {} outbox notifications were not confirmed and stay queued", failed.size(), batch.size());
+        }
+        return confirmed.size();
+    }
+
+    private OutboxMessage outboxMessage(String routingKey, Object payload) {
+        var message = jsonMessageConverter.toMessage(payload, new MessageProperties());
+        String typeId = message.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        return new OutboxMessage(null, routingKey, typeId, new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private static Message amqpMessage(OutboxMessage outboxMessage) {
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, outboxMessage.typeId());
+        return new Message(outboxMessage.payload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.LoanOverdueNotificationDto;
+import com.example.customerservice.enums.LoanLimitAdjustment;
+import com.example.customerservice.helper.LoanLimitEventDeduplicator;
+import com.example.customerservice.helper.LoanLimitHelper;
+import com.example.customerservice.helper.LoanLimitHelper.PendingAdjustment;
+import com.example.customerservice.repository.OverdueLoanSweepRepository;
+import com.example.customerservice.repository.OverdueLoanSweepRepository.DueLoan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One keyset chunk of an overdue sweep partition, in one transaction: the partition's checkpoint and the chunk's
+ * loans are locked, the loans are moved to {@code OVERDUE}, their customers' limits are reduced through
+ * {@link LoanLimitHelper#adjustLoanLimits} and the checkpoint is moved past the chunk. The overdue notifications
+ * are written to the notification outbox in the same transaction, through
+ * {@link NotificationService#enqueueLoansOverdue}, so they exist exactly when the chunk commits and no broker
+ * round trip holds the chunk's locks; the {@link NotificationOutboxRelay} publishes them afterwards. The limit
+ * reductions carry the event id {@value #EVENT_ID}, so a loan's reduction is applied once however often it is
+ * swept.
+ */
+@Service
+@Slf4j
+public class OverdueLoanSweepChunkProcessor {
+    static final String EVENT_ID = "overdue-sweep";
+
+    private final OverdueLoanSweepRepository sweepRepository;
+    private final LoanLimitHelper loanLimitHelper;
+    private final NotificationService notificationService;
+    private final AppConfig appConfig;
+    private final Counter loansMarked;
+
+    public OverdueLoanSweepChunkProcessor(OverdueLoanSweepRepository sweepRepository, LoanLimitHelper loanLimitHelper,
+                                          NotificationService notificationService, AppConfig appConfig,
+                                          MeterRegistry meterRegistry) {
+        this.sweepRepository = sweepRepository;
+        this.loanLimitHelper = loanLimitHelper;
+        this.notificationService = notificationService;
+        this.appConfig = appConfig;
+        this.loansMarked = meterRegistry.counter("loan.overdue.sweep.loans");
+    }
+
+    public record ChunkResult(int loansMarked, boolean completed) {
+    }
+
+    @Transactional
+    public ChunkResult processNextChunk(LocalDate sweepDate, int partitionNo) {
+        var partition = sweepRepository.lockPartition(sweepDate, partitionNo).orElse(null);
+        if (partition == null) {
+            // Finished meanwhile, e.g. by another instance
+            return new ChunkResult(0, true);
+        }
+        int chunkSize = appConfig.getOverdueSweepChunkSize();
+        List<DueLoan> loans = sweepRepository.lockNextChunk(partition, sweepDate, chunkSize);
+        boolean completed = loans.size() < chunkSize;
+        if (loans.isEmpty()) {
+            sweepRepository.advance(sweepDate, partitionNo, partition.rangeEnd(), 0, true);
+            return new ChunkResult(0, true);
+        }
+
+        int marked = sweepRepository.markOverdue(loans.stream().map(DueLoan::id).toList());
+        loanLimitHelper.adjustLoanLimits(loans.stream()
+                .map(loan -> new PendingAdjustment(loan.customerId(), false,
+                        LoanLimitEventDeduplicator.keyOf(loan.id(), LoanLimitAdjustment.SUBTRACTION, EVENT_ID)))
+                .toList());
+        long lastId = completed ? partition.rangeEnd() : loans.getLast().id();
+        sweepRepository.advance(sweepDate, partitionNo, lastId, marked, completed);
+
+        notificationService.enqueueLoansOverdue(loans.stream()
+                .map(loan -> LoanOverdueNotificationDto.builder()
+                        .loanId(loan.id())
+                        .customerId(loan.customerId())
+                        .amountDue(loan.amountDue())
+                        .dueDate(loan.dueDate())
+                        .build())
+                .toList());
+        loansMarked.increment(marked);
+        log.debug("Overdue sweep {} partition {}: {} loans marked overdue up to id {}", sweepDate, partitionNo, marked,
+                lastId);
+        return new ChunkResult(marked, completed);
+    }
+}
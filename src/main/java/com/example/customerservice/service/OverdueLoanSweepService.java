@@ -0,0 +1,130 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.repository.OverdueLoanSweepRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Moves open loans past their due date to {@code OVERDUE} once a day. The ids of the loans due are split into
+ * {@code workers * partitionsPerWorker} ranges, recorded as the day's checkpoints, and a pool of {@code workers}
+ * threads works through them, each partition in keyset chunks handled by {@link OverdueLoanSweepChunkProcessor}.
+ * Partitions lock disjoint loans, so the sweep scales with the workers until the database or its connection pool
+ * is saturated; several partitions per worker even out ranges that hold more due loans than others.
+ *
+ * <p>A customer's loans can fall into several partitions, so chunks running at the same time may share
+ * {@code loan_limits} and ledger rows. Those are locked in customer id order, and a chunk that still loses a lock
+ * wait or a deadlock is rolled back and retried up to {@code loan.overdue.sweep.lockRetries} times.
+ *
+ * <p>Progress is committed with every chunk, together with the chunk's overdue notifications in the notification
+ * outbox, which is relayed to the broker once the partitions are done. A sweep that is interrupted resumes from
+ * the checkpoints of its day on the next run, and instances sweeping at the same time share the partitions
+ * instead of repeating them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OverdueLoanSweepService {
+    public static final String TIMER = "loan.overdue.sweep";
+
+    private final OverdueLoanSweepRepository sweepRepository;
+    private final OverdueLoanSweepChunkProcessor chunkProcessor;
+    private final NotificationOutboxRelay notificationOutboxRelay;
+    private final AppConfig appConfig;
+
+    /**
+     * Holds its scheduler thread for the whole sweep; {@code spring.task.scheduling.pool.size} leaves the other
+     * scheduled jobs threads of their own meanwhile.
+     */
+    @Timed(TIMER)
+    @Scheduled(cron = "${loan.overdue.sweep.cron}")
+    public void sweep() {
+        sweep(LocalDate.now());
+    }
+
+    /**
+     * Marks the open loans due before {@code asOf} overdue, resuming the sweep of that day if it was started.
+     *
+     * @return the number of loans marked overdue by this run
+     */
+    public long sweep(LocalDate asOf) {
+        int workers = workers();
+        sweepRepository.planIfAbsent(asOf, asOf, workers * appConfig.getOverdueSweepPartitionsPerWorker());
+        List<Integer> partitions = sweepRepository.findUnfinishedPartitions(asOf);
+        if (partitions.isEmpty()) {
+            log.info("Overdue sweep {}: nothing to do", asOf);
+            return 0;
+        }
+        log.info("Overdue sweep {}: {} partitions to scan on {} workers", asOf, partitions.size(), workers);
+
+        long marked = 0;
+        var threads = Thread.ofPlatform().name("overdue-sweep-", 0).factory();
+        try (var executor = Executors.newFixedThreadPool(Math.min(workers, partitions.size()), threads)) {
+            List<Future<Long>> results = new ArrayList<>(partitions.size());
+            for (Integer partitionNo : partitions) {
+                results.add(executor.submit(() -> sweepPartition(asOf, partitionNo)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    marked += results.get(i).get();
+                } catch (ExecutionException e) {
+                    // Its checkpoint keeps what was done; the next run picks the partition up again
+                    log.error("Overdue sweep {} partition {} failed", asOf, partitions.get(i), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    break;
+                }
+            }
+        }
+        log.info("Overdue sweep {}: {} loans marked overdue", asOf, marked);
+        // Sends the sweep's notifications now rather than on the relay's next poll
+        notificationOutboxRelay.relay();
+        return marked;
+    }
+
+    private long sweepPartition(LocalDate asOf, int partitionNo) {
+        long marked = 0;
+        OverdueLoanSweepChunkProcessor.ChunkResult result;
+        do {
+            result = processNextChunk(asOf, partitionNo);
+            marked += result.loansMarked();
+        } while (!result.completed() && !Thread.currentThread().isInterrupted());
+        return marked;
+    }
+
+    /**
+     * Runs one chunk, retrying it when it loses a lock wait or a deadlock (CannotAcquireLockException or
+     * DeadlockLoserDataAccessException). The chunk's transaction is rolled back by then, so it starts over from
+     * the partition's checkpoint.
+     */
+    private OverdueLoanSweepChunkProcessor.ChunkResult processNextChunk(LocalDate asOf, int partitionNo) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return chunkProcessor.processNextChunk(asOf, partitionNo);
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt > appConfig.getOverdueSweepLockRetries()) {
+                    throw e;
+                }
+                log.warn("Overdue sweep {} partition {}: chunk lost a lock, retry {} of {}", asOf, partitionNo,
+                        attempt, appConfig.getOverdueSweepLockRetries(), e);
+            }
+        }
+    }
+
+    private int workers() {
+        int configured = appConfig.getOverdueSweepWorkers();
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,101 @@
+-- Tables mapped by this service as they stood when schema management moved from
+-- spring.jpa.hibernate.ddl-auto=update to Flyway. IF NOT EXISTS lets the same script baseline a database
+-- that ddl-auto (or another service sharing the schema) already created.
+
+create table if not exists customers
+(
+    id            bigint auto_increment
+        primary key,
+    credit_score  int            null,
+    email         varchar(255)   null,
+    name          varchar(255)   null,
+    phone_number  varchar(255)   null,
+    active        int            null,
+    date_created  datetime(6)    null,
+    date_modified datetime(6)    null,
+    first_name    varchar(255)   null,
+    income        decimal(38, 2) null,
+    last_name     varchar(255)   null,
+    national_id   varchar(255)   null,
+    currency      varchar(255)   null
+);
+
+create table if not exists customer_notification_preferences
+(
+    customer_preference_id    bigint auto_increment
+        primary key,
+    email_enabled             bit    not null,
+    push_notification_enabled bit    not null,
+    sms_enabled               bit    not null,
+    customer_id               bigint not null,
+    constraint UKqg96onpw5u43501qryynnd19k
+        unique (customer_id),
+    constraint FKjvhmcx2bndduq059e6qibma7a
+        foreign key (customer_id) references customers (id)
+);
+
+create table if not exists loan_limits
+(
+    id              bigint auto_increment
+        primary key,
+    available_limit decimal(38, 2)   null,
+    credit_limit    decimal(38, 2)   null,
+    currency        varchar(255)     null,
+    customer_id     bigint           not null,
+    version         bigint default 0 not null,
+    constraint UK8mel2yq3824ddros8iykg5thp
+        unique (customer_id),
+    constraint FKositk5jdr72mmxsfshiokgwrj
+        foreign key (customer_id) references customers (id)
+);
+
+create table if not exists loan_products
+(
+    id            bigint auto_increment
+        primary key,
+    active        int                        null,
+    date_created  datetime(6)                null,
+    date_modified datetime(6)                null,
+    description   varchar(255)               null,
+    name          varchar(255)               null,
+    tenure_type   enum ('FIXED', 'VARIABLE') null,
+    tenure_unit   enum ('DAYS', 'MONTHS')    null,
+    tenure_value  int                        null
+);
+
+create table if not exists loans
+(
+    id                 bigint auto_increment
+        primary key,
+    amount             decimal(38, 2)                                                 null,
+    amount_due         decimal(38, 2)                                                 null,
+    billing_cycle_type enum ('CONSOLIDATED_DUE_DATE', 'INDIVIDUAL_DUE_DATE')          null,
+    created_at         datetime(6)                                                    null,
+    due_date           date                                                           null,
+    loan_structure     enum ('INSTALLMENTS', 'LUMP_SUM')                              null,
+    start_date         date                                                           null,
+    state              enum ('CANCELLED', 'CLOSED', 'OPEN', 'OVERDUE', 'WRITTEN_OFF') null,
+    updated_at         datetime(6)                                                    null,
+    customer_id        bigint                                                         not null,
+    loan_product_id    bigint                                                         not null,
+    active             int                                                            null,
+    constraint FK3s60kbg0a404doyf8ii6qwb9g
+        foreign key (customer_id) references customers (id),
+    constraint FKri0g402nb4pqka97jtyiyjmdu
+        foreign key (loan_product_id) references loan_products (id)
+);
+
+create table if not exists processed_loan_limit_events
+(
+    event_key    varchar(191) not null
+        primary key,
+    processed_at datetime(6)  not null,
+    index processed_loan_limit_events_processed_at_index (processed_at)
+);
+
+create table if not exists id_generators
+(
+    sequence_name varchar(255) not null
+        primary key,
+    next_val      bigint       null
+);
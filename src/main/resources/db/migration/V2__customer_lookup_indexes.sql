@@ -0,0 +1,22 @@
+-- Composite and covering indexes for the hot customer lookups. CustomerQueryPlanIntegrationTest runs EXPLAIN
+-- on each of these queries and fails if one of them goes back to a full scan.
+
+-- existsByNationalIdAndActive, findActiveNationalIds (bulk onboarding) and the nationalId listing filter
+create index idx_customers_national_id_active
+    on customers (national_id, active);
+
+-- phoneNumber listing filter
+create index idx_customers_phone_number_active
+    on customers (phone_number, active);
+
+-- Listing and keyset pages: active = ? ORDER BY date_created DESC, id DESC, read backwards without a filesort
+create index idx_customers_active_date_created_id
+    on customers (active, date_created, id);
+
+-- The listing joins one loan limit and one preferences row per customer; covering the selected columns turns
+-- each join into an index-only lookup. The unique (customer_id) constraints stay for integrity.
+create index idx_loan_limits_customer_covering
+    on loan_limits (customer_id, credit_limit, available_limit, currency);
+
+create index idx_customer_notification_preferences_customer_covering
+    on customer_notification_preferences (customer_id, sms_enabled, email_enabled, push_notification_enabled);
@@ -0,0 +1,4 @@
+-- Covers the customer portfolio aggregation: WHERE customer_id = ? AND active = 1 GROUP BY state, loan_product_id
+-- summing amount_due and checking due_date is answered from this index alone, without touching the loan rows.
+create index idx_loans_customer_portfolio
+    on loans (customer_id, active, state, loan_product_id, amount_due, due_date);
@@ -0,0 +1,32 @@
+-- Append-only history of every change to loan_limits.available_limit. Entries are numbered per customer and
+-- loan_limits.ledger_sequence is the number of the latest one, so appending never scans earlier entries.
+-- amount is the signed change to the available limit and balance_after the available limit once it is applied.
+alter table loan_limits
+    add column ledger_sequence bigint default 0 not null;
+
+create table if not exists loan_limit_ledger
+(
+    customer_id   bigint         not null,
+    sequence      bigint         not null,
+    entry_type    varchar(32)    not null,
+    loan_id       bigint         null,
+    amount        decimal(38, 2) not null,
+    balance_after decimal(38, 2) not null,
+    created_at    datetime(6)    not null,
+    primary key (customer_id, sequence)
+);
+
+-- Running balance at every loan.limit.ledger.snapshotInterval-th entry; a rebuild starts from the latest one
+create table if not exists loan_limit_snapshots
+(
+    customer_id bigint         not null,
+    sequence    bigint         not null,
+    balance     decimal(38, 2) not null,
+    created_at  datetime(6)    not null,
+    primary key (customer_id, sequence)
+);
+
+-- Existing limits open their ledger at sequence 0 with their current available limit
+insert into loan_limit_ledger (customer_id, sequence, entry_type, loan_id, amount, balance_after, created_at)
+select customer_id, 0, 'OPENING', null, coalesce(available_limit, 0), coalesce(available_limit, 0), now(6)
+from loan_limits;
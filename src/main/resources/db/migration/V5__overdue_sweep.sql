@@ -0,0 +1,19 @@
+-- Serves the overdue sweep's keyset chunks: WHERE state = 'OPEN' AND active = 1 AND id > ? AND id <= ?
+-- ORDER BY id, with due_date checked from the index entry.
+create index idx_loans_overdue_sweep
+    on loans (state, active, id, due_date);
+
+-- Progress of the overdue sweep for one day: the id range of each partition and the last loan id scanned in it,
+-- advanced in the same transaction as the loans it marked overdue.
+create table if not exists overdue_sweep_checkpoints
+(
+    sweep_date   date        not null,
+    partition_no int         not null,
+    range_start  bigint      not null,
+    range_end    bigint      not null,
+    last_id      bigint      not null,
+    loans_marked bigint      not null default 0,
+    completed    tinyint(1)  not null default 0,
+    updated_at   datetime(6) not null,
+    primary key (sweep_date, partition_no)
+);
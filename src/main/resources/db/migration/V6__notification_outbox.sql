@@ -0,0 +1,12 @@
+-- Notifications written in the transaction of the change they report, e.g. an overdue sweep chunk, and published
+-- with publisher confirms once it has committed. A row is deleted when the broker has confirmed its message.
+create table if not exists notification_outbox
+(
+    id          bigint       not null auto_increment,
+    routing_key varchar(255) not null,
+    type_id     varchar(255) not null,
+    payload     text         not null,
+    attempts    int          not null default 0,
+    created_at  datetime(6)  not null,
+    primary key (id)
+);
@@ -0,0 +1,13 @@
+-- Optimistic lock column of LoanLimit. V1 declares it, but V1 skips loan_limits wherever ddl-auto had already
+-- created the table, so it is added here unless it exists. MySQL has no ADD COLUMN IF NOT EXISTS.
+set @add_loan_limits_version = (
+    select if(count(*) = 0,
+              'alter table loan_limits add column version bigint default 0 not null',
+              'do 0')
+    from information_schema.columns
+    where table_schema = database()
+      and table_name = 'loan_limits'
+      and column_name = 'version');
+prepare add_loan_limits_version from @add_loan_limits_version;
+execute add_loan_limits_version;
+deallocate prepare add_loan_limits_version;
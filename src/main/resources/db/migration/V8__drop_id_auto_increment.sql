@@ -0,0 +1,11 @@
+-- Ids come from id_generators (see IdGeneratorSeeder), which is only raised past MAX(id) at startup. With
+-- AUTO_INCREMENT still on, a writer that omits the id would take one a table generator hands out later; without
+-- it such an insert fails at once. The columns keep their type, so the foreign keys referencing them stay valid,
+-- but MySQL refuses to modify a referenced column while this session checks foreign keys.
+set foreign_key_checks = 0;
+alter table customers modify id bigint not null;
+alter table customer_notification_preferences modify customer_preference_id bigint not null;
+alter table loan_limits modify id bigint not null;
+alter table loan_products modify id bigint not null;
+alter table loans modify id bigint not null;
+set foreign_key_checks = 1;
@@ -24,8 +24,7 @@ public abstract class AbstractIntegrationTest {
             new MySQLContainer<>("mysql:8.0")
                     .withDatabaseName("testdb")
                     .withUsername("testuser")
-                    .withPassword("testpass")
-                    .withInitScript("schema.sql");
+                    .withPassword("testpass");
 
     private static final RabbitMQContainer rabbitMQContainer =
             new RabbitMQContainer("rabbitmq:3.9-management")
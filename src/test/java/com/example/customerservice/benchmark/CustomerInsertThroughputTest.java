@@ -0,0 +1,89 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.dto.CustomerNotificationPreferencesDto;
+import com.example.customerservice.dto.CustomerRequest;
+import com.example.customerservice.repository.CustomerBulkWriter;
+import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.service.CustomerService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Customers onboarded per second through {@link CustomerService#createCustomer} one at a time versus
+ * {@link CustomerBulkWriter} in chunks, each customer being one row in three tables. Excluded from the default
+ * build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+public class CustomerInsertThroughputTest extends AbstractIntegrationTest {
+    private static final int CUSTOMERS = 2_000;
+    private static final int CHUNK_SIZE = 1_000;
+    private static final AtomicLong NATIONAL_IDS = new AtomicLong(80_000_000);
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CustomerBulkWriter customerBulkWriter;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Test
+    void compareSingleAndBatchedInsertThroughput() {
+        // Warm up both paths so neither pays for class loading and statement preparation
+        requests(100).forEach(customerService::createCustomer);
+        customerBulkWriter.insert(requests(100));
+        long before = customerRepository.count();
+
+        var single = requests(CUSTOMERS);
+        long singleStart = System.nanoTime();
+        single.forEach(customerService::createCustomer);
+        double singlePerSecond = perSecond(CUSTOMERS, System.nanoTime() - singleStart);
+
+        var batched = requests(CUSTOMERS);
+        long batchedStart = System.nanoTime();
+        for (int from = 0; from < CUSTOMERS; from += CHUNK_SIZE) {
+            customerBulkWriter.insert(batched.subList(from, Math.min(from + CHUNK_SIZE, CUSTOMERS)));
+        }
+        double batchedPerSecond = perSecond(CUSTOMERS, System.nanoTime() - batchedStart);
+
+        log.info("Customer inserts/s: createCustomer {}, bulk writer {} ({}x)",
+                Math.round(singlePerSecond), Math.round(batchedPerSecond),
+                String.format("%.1f", batchedPerSecond / singlePerSecond));
+        assertThat(customerRepository.count()).isEqualTo(before + 2L * CUSTOMERS);
+    }
+
+    private static double perSecond(int customers, long nanos) {
+        return customers / (nanos / 1_000_000_000.0);
+    }
+
+    private static List<CustomerRequest> requests(int count) {
+        List<CustomerRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(CustomerRequest.builder()
+                    .firstName("Bench")
+                    .lastName("Customer")
+                    .email("bench@example.com")
+                    .phoneNumber("+254700000000")
+                    .currency("KES")
+                    .income(BigDecimal.valueOf(1000))
+                    .nationalId(String.valueOf(NATIONAL_IDS.incrementAndGet()))
+                    .customerNotificationPreferencesDto(CustomerNotificationPreferencesDto.builder()
+                            .smsEnabled(true)
+                            .build())
+                    .build());
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.dto.ApiResponse;
+import com.example.customerservice.dto.CustomerListingView;
+import com.example.customerservice.dto.CustomerResponseDto;
+import com.example.customerservice.dto.PaginateObjectResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The CPU side of {@code GET /customer}: mapping a page of {@link CustomerListingView} rows to
+ * {@link CustomerResponseDto}s as {@code CustomerService.getCustomers} does, and writing the response body with an
+ * {@link ObjectMapper} configured like the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerListingBenchmark {
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private List<CustomerListingView> rows;
+    private ApiResponse<PaginateObjectResponse<CustomerResponseDto>> response;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(pageSize);
+        var dateCreated = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < pageSize; i++) {
+            rows.add(new CustomerListingView((long) i, "John", "Doe", "john.doe@example.com", "+254705238260",
+                    String.valueOf(30_000_000 + i), BigDecimal.valueOf(3000), dateCreated.minusMinutes(i),
+                    BigDecimal.valueOf(10_000), BigDecimal.valueOf(7_500), "KES", true, false, i % 2 == 0));
+        }
+        response = new ApiResponse<>(true, "Customers retrieved successfully", page(mapRows()));
+        writer = new ObjectMapper().registerModule(new JavaTimeModule()).writer();
+    }
+
+    @Benchmark
+    public List<CustomerResponseDto> mapRows() {
+        return rows.stream()
+                .map(CustomerListingView::toResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeResponse() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+
+    private PaginateObjectResponse<CustomerResponseDto> page(List<CustomerResponseDto> content) {
+        return new PaginateObjectResponse<>(content, 0, pageSize, 1_000, 1_000 / pageSize, false);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.dto.CustomerListingView;
+import com.example.customerservice.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of single-customer lookups by phone number, national ID and id through the old catch-all
+ * {@code (:p IS NULL OR c.col = :p)} JPQL versus the composed predicates of {@code CustomerRepositoryImpl}. The
+ * table size defaults to 5M rows and can be lowered with {@code -Dbenchmark.customers}. Excluded from the default
+ * build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+public class CustomerLookupLatencyTest extends AbstractIntegrationTest {
+    private static final long FIRST_ID = 1_000_000_000L;
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 5_000_000);
+    private static final int SEED_CHUNK = 100_000;
+    private static final int LOOKUPS = 200;
+
+    private static final String CATCH_ALL_JPQL = """
+             SELECT new com.example.customerservice.dto.CustomerListingView(
+                 c.id, c.firstName, c.lastName, c.email, c.phoneNumber, c.nationalId, c.income, c.dateCreated,
+                 l.creditLimit, l.availableLimit, l.currency,
+                 cN.smsEnabled, cN.emailEnabled, cN.pushNotificationEnabled)
+             FROM Customer c
+             LEFT JOIN LoanLimit l ON l.customer = c
+             LEFT JOIN CustomerNotificationPreferences cN ON cN.customer = c
+             WHERE (:phoneNumber IS NULL OR c.phoneNumber = :phoneNumber)
+             AND (:nationalId IS NULL OR c.nationalId = :nationalId)
+             AND (:customerId IS NULL OR c.id = :customerId)
+             AND (:active IS NULL OR c.active = :active)
+             ORDER BY c.dateCreated DESC
+            """;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedCustomers() {
+        // Ten-row digit table cross joined five times yields SEED_CHUNK rows per INSERT ... SELECT
+        String digits = "(SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4"
+                + " UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9)";
+        for (long from = 0; from < CUSTOMERS; from += SEED_CHUNK) {
+            jdbcTemplate.update("""
+                    INSERT INTO customers (id, first_name, last_name, phone_number, national_id, active, date_created)
+                    SELECT ? + n, 'Lookup', 'Customer', CONCAT('+2548', ? + n), CAST(? + n AS CHAR),
+                           IF(n % 10 = 0, 0, 1), NOW(6) - INTERVAL n SECOND
+                    FROM (SELECT a.d + 10 * b.d + 100 * c.d + 1000 * e.d + 10000 * f.d AS n
+                          FROM %1$s a, %1$s b, %1$s c, %1$s e, %1$s f) seq
+                    WHERE ? + n < ?
+                    """.formatted(digits), FIRST_ID + from, 10_000_000 + from, 10_000_000 + from, from, CUSTOMERS);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE customers");
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        jdbcTemplate.update("DELETE FROM customers WHERE id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void compareCatchAllAndComposedLookupLatency() {
+        measure("phone", i -> "+2548" + (10_000_000 + i), null, null);
+        measure("nationalId", null, i -> String.valueOf(10_000_000 + i), null);
+        measure("id", null, null, i -> (int) (FIRST_ID + i));
+    }
+
+    private void measure(String lookup, IntFunction<String> phone, IntFunction<String> nationalId,
+                         IntFunction<Integer> id) {
+        var pageable = PageRequest.of(0, 10, Sort.by("dateCreated").descending());
+        Lookup catchAll = i -> transactionTemplate.execute(status -> entityManager
+                .createQuery(CATCH_ALL_JPQL, CustomerListingView.class)
+                .setParameter("phoneNumber", phone == null ? null : phone.apply(i))
+                .setParameter("nationalId", nationalId == null ? null : nationalId.apply(i))
+                .setParameter("customerId", id == null ? null : id.apply(i).longValue())
+                .setParameter("active", null)
+                .setMaxResults(10)
+                .getResultList());
+        Lookup composed = i -> customerRepository.getCustomers(phone == null ? null : phone.apply(i),
+                nationalId == null ? null : nationalId.apply(i), null, id == null ? null : id.apply(i),
+                pageable).getContent();
+
+        // Warm up both so neither pays for query plan and statement preparation
+        timeLookups(catchAll, 10);
+        timeLookups(composed, 10);
+        double catchAllMicros = timeLookups(catchAll, LOOKUPS);
+        double composedMicros = timeLookups(composed, LOOKUPS);
+
+        log.info("{} lookup over {} customers, mean µs: catch-all {}, composed {} ({}x)", lookup, CUSTOMERS,
+                Math.round(catchAllMicros), Math.round(composedMicros),
+                String.format("%.1f", catchAllMicros / composedMicros));
+    }
+
+    private static double timeLookups(Lookup lookup, int count) {
+        long start = System.nanoTime();
+        for (int n = 0; n < count; n++) {
+            int i = ThreadLocalRandom.current().nextInt(CUSTOMERS);
+            assertThat(lookup.find(i)).hasSize(1);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / count;
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        List<CustomerListingView> find(int i);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.dto.CustomerFilterRequest;
+import com.example.customerservice.dto.CustomerNotificationPreferencesDto;
+import com.example.customerservice.dto.CustomerRequest;
+import com.example.customerservice.helper.LoanLimitHelper;
+import com.example.customerservice.repository.LoanLimitRepository;
+import com.example.customerservice.service.CustomerService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Operations per second of {@code getCustomers}, {@code createCustomer} and {@code adjustLoanLimit} from
+ * {@link #THREADS} concurrent callers. Subclasses run it under the default datasource settings and under the
+ * {@code high-throughput} profile. Whichever of the two runs second in the JVM checks that the profile is not
+ * slower than the defaults at any operation by more than {@code -Dbenchmark.tolerance} (10% by default).
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+abstract class DataSourceThroughputBenchmark extends AbstractIntegrationTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 4_000;
+    private static final AtomicLong NATIONAL_IDS = new AtomicLong(60_000_000);
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.10"));
+    private static final String DEFAULTS = "defaults";
+    private static final String HIGH_THROUGHPUT = "high-throughput";
+    /**
+     * Ops/s of createCustomer, getCustomers and adjustLoanLimit by settings, shared by the subclasses' runs.
+     */
+    private static final Map<String, double[]> RESULTS = new ConcurrentHashMap<>();
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    LoanLimitHelper loanLimitHelper;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Autowired
+    Environment environment;
+
+    @Test
+    void measureRepositoryThroughput() throws Exception {
+        // Customers to list and adjust; also warms up every statement on every pooled connection
+        run(1_000, i -> customerService.createCustomer(request()));
+        var customerIds = loanLimitRepository.findAll().stream().map(limit -> limit.getCustomer().getId()).toList();
+        run(1_000, i -> customerService.getCustomers(listing(i)));
+        run(1_000, i -> loanLimitHelper.adjustLoanLimit(randomOf(customerIds), i % 2 == 0));
+
+        double creates = run(OPERATIONS, i -> customerService.createCustomer(request()));
+        double listings = run(OPERATIONS, i -> customerService.getCustomers(listing(i)));
+        double adjustments = run(OPERATIONS, i -> loanLimitHelper.adjustLoanLimit(randomOf(customerIds), i % 2 == 0));
+
+        log.info("Profiles {}: ops/s over {} threads - createCustomer {}, getCustomers {}, adjustLoanLimit {}",
+                Arrays.toString(environment.getActiveProfiles()), THREADS,
+                Math.round(creates), Math.round(listings), Math.round(adjustments));
+        assertThat(customerIds).isNotEmpty();
+
+        RESULTS.put(Arrays.asList(environment.getActiveProfiles()).contains(HIGH_THROUGHPUT) ? HIGH_THROUGHPUT : DEFAULTS,
+                new double[]{creates, listings, adjustments});
+        if (RESULTS.containsKey(DEFAULTS) && RESULTS.containsKey(HIGH_THROUGHPUT)) {
+            var defaults = RESULTS.get(DEFAULTS);
+            var tuned = RESULTS.get(HIGH_THROUGHPUT);
+            var operations = List.of("createCustomer", "getCustomers", "adjustLoanLimit");
+            for (int i = 0; i < operations.size(); i++) {
+                assertThat(tuned[i])
+                        .as("%s ops/s with the high-throughput profile", operations.get(i))
+                        .isGreaterThanOrEqualTo(defaults[i] * (1 - TOLERANCE));
+            }
+        }
+    }
+
+    private static double run(int operations, IntConsumer operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(operations);
+            for (int i = 0; i < operations; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> operation.accept(n)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return operations / ((System.nanoTime() - start) / 1_000_000_000.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Long randomOf(List<Long> customerIds) {
+        return customerIds.get(ThreadLocalRandom.current().nextInt(customerIds.size()));
+    }
+
+    private static CustomerFilterRequest listing(int i) {
+        return CustomerFilterRequest.builder().page(i % 5 + 1).size(20).build();
+    }
+
+    private static CustomerRequest request() {
+        return CustomerRequest.builder()
+                .firstName("Bench")
+                .lastName("Customer")
+                .email("bench@example.com")
+                .phoneNumber("+254700000000")
+                .currency("KES")
+                .income(BigDecimal.valueOf(1000))
+                .nationalId(String.valueOf(NATIONAL_IDS.incrementAndGet()))
+                .customerNotificationPreferencesDto(CustomerNotificationPreferencesDto.builder()
+                        .smsEnabled(true)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.customerservice.benchmark;
+
+import org.junit.jupiter.api.Tag;
+
+/**
+ * {@link DataSourceThroughputBenchmark} with the datasource settings of {@code application.properties}.
+ */
+@Tag("benchmark")
+public class DefaultDataSourceThroughputTest extends DataSourceThroughputBenchmark {
+}
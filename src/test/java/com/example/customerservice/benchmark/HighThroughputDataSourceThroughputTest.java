@@ -0,0 +1,39 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.listener.LoanLimitPartitionDispatcher;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link DataSourceThroughputBenchmark} with {@code application-high-throughput.properties} layered on top.
+ */
+@Tag("benchmark")
+@ActiveProfiles({"local", "test", "high-throughput"})
+public class HighThroughputDataSourceThroughputTest extends DataSourceThroughputBenchmark {
+
+    @Autowired
+    ApplicationContext applicationContext;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    AppConfig appConfig;
+
+    @Test
+    void givenHighThroughputProfile_whenStarted_thenThePoolCoversTheLanesItIsSizedFor() {
+        // The lanes only exist in partitioned mode
+        assertThat(applicationContext.getBeansOfType(LoanLimitPartitionDispatcher.class)).hasSize(1);
+        var pool = ((HikariDataSource) dataSource).getMaximumPoolSize();
+        assertThat(pool).isGreaterThan(appConfig.getPartitionCount() + appConfig.getOverdueSweepWorkers());
+    }
+}
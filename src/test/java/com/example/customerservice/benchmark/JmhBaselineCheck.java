@@ -0,0 +1,128 @@
+package com.example.customerservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with the saved baseline and fails when a benchmark got slower, or allocates more per
+ * operation, than the baseline by more than the tolerance. Throughput ({@code thrpt}) scores are better when
+ * higher, every other mode when lower. A slowdown only counts when the two 99.9% confidence intervals do not
+ * overlap either, so noisy CI runners do not fail the build on jitter; allocation per operation is nearly
+ * deterministic and is compared directly. Benchmarks missing from the baseline are reported but do not fail.
+ *
+ * <p>Run by the {@code jmh} Maven profile after the benchmarks; with {@code update} the result replaces the
+ * baseline instead, which is also what happens when no baseline exists yet.
+ *
+ * <p>Arguments: {@code <result.json> <baseline.json> <tolerance, e.g. 0.15> [update]}
+ */
+public class JmhBaselineCheck {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    /**
+     * Allocation slack in bytes/op, so benchmarks that allocate (almost) nothing do not flap.
+     */
+    private static final double ALLOCATION_SLACK = 16;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: JmhBaselineCheck <result.json> <baseline.json> <tolerance> [update]");
+        }
+        var resultPath = Path.of(args[0]);
+        var baselinePath = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean update = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        var result = OBJECT_MAPPER.readTree(resultPath.toFile());
+        if (update || !Files.exists(baselinePath)) {
+            Files.createDirectories(baselinePath.toAbsolutePath().getParent());
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(baselinePath.toFile(), result);
+            System.out.println("JMH baseline written to " + baselinePath);
+            return;
+        }
+
+        var regressions = compare(index(result), index(OBJECT_MAPPER.readTree(baselinePath.toFile())), tolerance);
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("JMH regressions beyond " + Math.round(tolerance * 100) + "% of "
+                    + baselinePath + ":\n  " + String.join("\n  ", regressions));
+        }
+        System.out.println("No JMH regressions beyond " + Math.round(tolerance * 100) + "% of " + baselinePath);
+    }
+
+    static List<String> compare(Map<String, JsonNode> results, Map<String, JsonNode> baselines, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        results.forEach((name, current) -> {
+            var baseline = baselines.get(name);
+            if (baseline == null) {
+                System.out.println("NEW   " + name + " " + score(current.path("primaryMetric")));
+                return;
+            }
+            boolean higherIsBetter = "thrpt".equals(current.path("mode").asText());
+            double now = current.path("primaryMetric").path("score").asDouble();
+            double then = baseline.path("primaryMetric").path("score").asDouble();
+            double nowError = error(current.path("primaryMetric"));
+            double thenError = error(baseline.path("primaryMetric"));
+            double change = then == 0 ? 0 : (now - then) / then;
+            boolean slower = higherIsBetter
+                    ? change < -tolerance && now + nowError < then - thenError
+                    : change > tolerance && now - nowError > then + thenError;
+
+            double allocationNow = allocation(current);
+            double allocationThen = allocation(baseline);
+            boolean allocatesMore = allocationNow >= 0 && allocationThen >= 0
+                    && allocationNow > allocationThen * (1 + tolerance) + ALLOCATION_SLACK;
+
+            var line = "%s %s: %s -> %s (%+.1f%%)%s".formatted(slower || allocatesMore ? "WORSE" : "OK   ", name,
+                    score(baseline.path("primaryMetric")), score(current.path("primaryMetric")), change * 100,
+                    allocationNow >= 0 && allocationThen >= 0
+                            ? ", %.0f -> %.0f B/op".formatted(allocationThen, allocationNow) : "");
+            System.out.println(line);
+            if (slower || allocatesMore) {
+                regressions.add(line.substring(6));
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * Keys each run by benchmark method and parameter values, e.g. {@code ...CustomerListingBenchmark.mapRows{pageSize=10}}.
+     */
+    static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").properties().forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+            byName.put(run.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString()), run);
+        }
+        return byName;
+    }
+
+    private static double allocation(JsonNode run) {
+        for (var metric : run.path("secondaryMetrics").properties()) {
+            // Older JMH versions prefix secondary metric names with a middle dot
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return -1;
+    }
+
+    private static double error(JsonNode metric) {
+        // NaN when there were too few iterations to compute one
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String score(JsonNode metric) {
+        return "%.3f %s".formatted(metric.path("score").asDouble(), metric.path("scoreUnit").asText());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.helper.LoanLimitHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link LoanLimitHelper} percentage math: the factor for one event, and for the net increases and
+ * reductions a batch collapses onto one customer, applied to a limit as the locking read does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanLimitAdjustmentBenchmark {
+    @Param({"1:0", "7:3"})
+    public String netAdjustment;
+
+    private LoanLimitHelper loanLimitHelper;
+    private int increases;
+    private int reductions;
+    private BigDecimal availableLimit;
+
+    @Setup
+    public void setUp() {
+        var appConfig = new AppConfig(null);
+        appConfig.setAdjustmentPercentage(5);
+        loanLimitHelper = new LoanLimitHelper(appConfig, null, null, null, null, null);
+        var counts = netAdjustment.split(":");
+        increases = Integer.parseInt(counts[0]);
+        reductions = Integer.parseInt(counts[1]);
+        availableLimit = new BigDecimal("10500.00");
+    }
+
+    @Benchmark
+    public BigDecimal adjustmentFactor() {
+        return loanLimitHelper.adjustmentFactor(increases, reductions);
+    }
+
+    @Benchmark
+    public BigDecimal adjustedLimit() {
+        return availableLimit.multiply(loanLimitHelper.adjustmentFactor(increases, reductions))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.example.customerservice.enums.LoanLimitAdjustment;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a {@code loan.limit.queue} body into the values the listener needs. {@code legacyTree} is the
+ * former listener: a new {@link ObjectMapper} per message, a {@link JsonNode} tree and string comparisons on
+ * {@code adjustment}. {@code converter} is the path the single listener now takes, and {@code typedReader} the
+ * one the batch and partitioned listeners use.
+ *
+ * <p>Run with the other benchmarks through {@code mvn -Pjmh verify}, or alone through this class's {@code main} on
+ * the test classpath; allocations are reported by the GC profiler as {@code gc.alloc.rate.norm} (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanLimitEventDeserializationBenchmark {
+    private static final String BODY = """
+            {"customerId":48213,"loanId":902117,"adjustment":"subtraction","eventId":"1f0c2a7e-5b7d-4f43-9a55-0d3e1c7b8a61"}
+            """;
+
+    private byte[] body;
+    private Message message;
+    private ObjectMapper sharedMapper;
+    private ObjectReader typedReader;
+    private Jackson2JsonMessageConverter converter;
+
+    @Setup
+    public void setUp() {
+        body = BODY.getBytes(StandardCharsets.UTF_8);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        message = new Message(body, properties);
+        properties.setInferredArgumentType(LoanLimitAdjustmentEventDto.class);
+
+        sharedMapper = new ObjectMapper();
+        typedReader = sharedMapper.readerFor(LoanLimitAdjustmentEventDto.class);
+        converter = new Jackson2JsonMessageConverter(sharedMapper);
+        converter.setTypePrecedence(Jackson2JavaTypeMapper.TypePrecedence.INFERRED);
+    }
+
+    @Benchmark
+    public void legacyTree(Blackhole blackhole) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode eventData = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+        blackhole.consume(eventData.get("customerId").asLong());
+        blackhole.consume(eventData.get("adjustment").asText().equalsIgnoreCase("addition"));
+    }
+
+    @Benchmark
+    public void sharedMapperTree(Blackhole blackhole) throws Exception {
+        JsonNode eventData = sharedMapper.readTree(body);
+        blackhole.consume(eventData.get("customerId").asLong());
+        blackhole.consume(eventData.get("adjustment").asText().equalsIgnoreCase("addition"));
+    }
+
+    @Benchmark
+    public void converter(Blackhole blackhole) {
+        LoanLimitAdjustmentEventDto event = (LoanLimitAdjustmentEventDto) converter.fromMessage(message);
+        blackhole.consume(event.getCustomerId());
+        blackhole.consume(event.getAdjustment() == LoanLimitAdjustment.ADDITION);
+    }
+
+    @Benchmark
+    public void typedReader(Blackhole blackhole) throws Exception {
+        LoanLimitAdjustmentEventDto event = typedReader.readValue(body);
+        blackhole.consume(event.getCustomerId());
+        blackhole.consume(event.getAdjustment() == LoanLimitAdjustment.ADDITION);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoanLimitEventDeserializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
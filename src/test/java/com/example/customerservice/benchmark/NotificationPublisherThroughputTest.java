@@ -0,0 +1,128 @@
+package com.example.customerservice.benchmark;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.LoanOverdueNotificationDto;
+import com.example.customerservice.enums.NotificationChannel;
+import com.example.customerservice.service.NotificationPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confirmed notifications per second against the RabbitMQ container: one message at a time, each waiting for its
+ * confirm, versus {@link NotificationPublisher}, which publishes in batches and tracks confirms asynchronously.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}, optionally with
+ * {@code -Dbenchmark.notifications=<count>}.
+ */
+@Tag("benchmark")
+@Slf4j
+public class NotificationPublisherThroughputTest extends AbstractIntegrationTest {
+    private static final String ROUTING_KEY = "loan.notification.benchmark";
+    private static final int NOTIFICATIONS = Integer.getInteger("benchmark.notifications", 20_000);
+
+    @Autowired
+    NotificationPublisher notificationPublisher;
+
+    @Autowired
+    ConnectionFactory connectionFactory;
+
+    @Autowired
+    MessageConverter jsonMessageConverter;
+
+    @Autowired
+    RabbitAdmin rabbitAdmin;
+
+    @Autowired
+    AppConfig properties;
+
+    private final Queue queue = new AnonymousQueue();
+
+    @BeforeEach
+    void declareQueue() {
+        rabbitAdmin.declareQueue(queue);
+        rabbitAdmin.declareBinding(BindingBuilder.bind(queue)
+                .to(new DirectExchange(properties.getNotificationExchange())).with(ROUTING_KEY));
+    }
+
+    @AfterEach
+    void deleteQueue() {
+        rabbitAdmin.deleteQueue(queue.getName());
+    }
+
+    @Test
+    void compareSynchronousAndBatchedConfirmThroughput() throws Exception {
+        var confirming = new CachingConnectionFactory(
+                ((CachingConnectionFactory) connectionFactory).getRabbitConnectionFactory());
+        confirming.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        var template = new RabbitTemplate(confirming);
+        template.setMessageConverter(jsonMessageConverter);
+        try {
+            // Warm up both paths
+            publishSynchronously(template, 500);
+            publishBatched(500);
+
+            long synchronousStart = System.nanoTime();
+            publishSynchronously(template, NOTIFICATIONS);
+            double synchronousPerSecond = perSecond(NOTIFICATIONS, System.nanoTime() - synchronousStart);
+
+            long batchedStart = System.nanoTime();
+            publishBatched(NOTIFICATIONS);
+            double batchedPerSecond = perSecond(NOTIFICATIONS, System.nanoTime() - batchedStart);
+
+            log.info("Confirmed notifications/s: one at a time {}, batched publisher {} ({}x)",
+                    Math.round(synchronousPerSecond), Math.round(batchedPerSecond),
+                    String.format("%.1f", batchedPerSecond / synchronousPerSecond));
+            assertThat(rabbitAdmin.getQueueInfo(queue.getName()).getMessageCount())
+                    .isEqualTo(2 * (NOTIFICATIONS + 500));
+        } finally {
+            confirming.destroy();
+        }
+    }
+
+    private void publishSynchronously(RabbitTemplate template, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            var correlation = new CorrelationData();
+            template.convertAndSend(properties.getNotificationExchange(), ROUTING_KEY, notification(i), correlation);
+            assertThat(correlation.getFuture().get(10, TimeUnit.SECONDS).isAck()).isTrue();
+        }
+    }
+
+    private void publishBatched(int count) throws Exception {
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            confirms.add(notificationPublisher.publish(ROUTING_KEY, notification(i)));
+        }
+        CompletableFuture.allOf(confirms.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+    }
+
+    private static LoanOverdueNotificationDto notification(long loanId) {
+        return new LoanOverdueNotificationDto(loanId, 1L, BigDecimal.TEN, LocalDate.now(), NotificationChannel.EMAIL);
+    }
+
+    private static double perSecond(int notifications, long nanos) {
+        return notifications / (nanos / 1_000_000_000.0);
+    }
+}
@@ -7,7 +7,14 @@ import com.example.customerservice.dto.CustomerRequest;
 import com.example.customerservice.dto.LoanLimitsDto;
 import com.example.customerservice.factories.CustomerFactory;
 import com.example.customerservice.factories.CustomerNotificationPreferencesFactory;
+import com.example.customerservice.enums.LoanState;
+import com.example.customerservice.factories.LoanFactory;
 import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.repository.CustomerNotificationPreferenceRepository;
+import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.repository.LoanLimitRepository;
+import com.example.customerservice.repository.LoanRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,9 +26,15 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static com.example.customerservice.testHelpers.RabbitMqTestHelper.createLoanLimitQueue;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,8 +53,21 @@ public class CustomerControllerIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     AppConfig properties;
 
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Autowired
+    CustomerNotificationPreferenceRepository preferenceRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
     @BeforeEach
     void preCleanUp() {
+        LoanFactory.deleteAll();
         CustomerNotificationPreferencesFactory.deleteAll();
         LoanLimitFactory.deleteAll();
         CustomerFactory.deleteAll();
@@ -80,6 +106,43 @@ public class CustomerControllerIntegrationTest extends AbstractIntegrationTest {
     }
 
 
+    @Test
+    void givenLoansInSeveralStates_whenFetchingPortfolio_thenExposureIsAggregated() throws Exception {
+        // Given: two open loans of one product (one past due), one overdue and one closed loan of another
+        var customer = CustomerFactory.create();
+        var personal = LoanProductFactory.create();
+        var mortgage = LoanProductFactory.create();
+        LoanFactory.create(customer, personal);
+        var pastDue = LoanFactory.create(customer, personal);
+        pastDue.setDueDate(LocalDate.now().minusDays(1));
+        loanRepository.save(pastDue);
+        var overdue = LoanFactory.create(customer, mortgage);
+        overdue.setState(LoanState.OVERDUE);
+        overdue.setAmountDue(BigDecimal.valueOf(250));
+        loanRepository.save(overdue);
+        var closed = LoanFactory.create(customer, mortgage);
+        closed.setState(LoanState.CLOSED);
+        loanRepository.save(closed);
+
+        // When & Then
+        mockMvc.perform(get("/customer/" + customer.getId() + "/portfolio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalLoans").value(4))
+                .andExpect(jsonPath("$.data.outstandingAmountDue").value(2250.0))
+                .andExpect(jsonPath("$.data.overdueLoans").value(2))
+                .andExpect(jsonPath("$.data.overdueAmountDue").value(1250.0))
+                .andExpect(jsonPath("$.data.byState.length()").value(3))
+                .andExpect(jsonPath("$.data.byProduct[0].loanProductId").value(personal.getId()))
+                .andExpect(jsonPath("$.data.byProduct[0].outstandingAmountDue").value(2000.0))
+                .andExpect(jsonPath("$.data.byProduct[1].overdueLoans").value(1));
+    }
+
+    @Test
+    void givenUnknownCustomer_whenFetchingPortfolio_thenReturnNotFound() throws Exception {
+        mockMvc.perform(get("/customer/999999999/portfolio"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void givenValidLoanLimitRequest_whenCreatingLoanLimit_thenReturnSuccess() throws Exception {
         // Given
@@ -142,6 +205,47 @@ public class CustomerControllerIntegrationTest extends AbstractIntegrationTest {
     }
 
 
+    @Test
+    void givenMoreCustomersThanPageSize_whenFetchingByCursor_thenWalkAllPagesWithoutOverlap() throws Exception {
+        // Given: six customers, one more than the smallest page size
+        for (int i = 0; i < 6; i++) {
+            var customer = CustomerFactory.create();
+            LoanLimitFactory.create(customer);
+            CustomerNotificationPreferencesFactory.create(customer);
+        }
+
+        // When: requesting the first page with an empty cursor
+        var firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/customer")
+                        .param("cursor", "")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.data.content.length()").value(5))
+                .andExpect(jsonPath("$.data.data.last").value(false))
+                .andExpect(jsonPath("$.data.data.totalElements").doesNotExist())
+                .andReturn();
+        var nextCursor = objectMapper.readTree(firstPage.getResponse().getContentAsString())
+                .at("/data/data/nextCursor").asText();
+
+        // Then: the next cursor leads to the remaining customer
+        mockMvc.perform(MockMvcRequestBuilders.get("/customer")
+                        .param("cursor", nextCursor)
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.data.last").value(true));
+    }
+
+    @Test
+    void givenMalformedCursor_whenFetchingByCursor_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/customer")
+                        .param("cursor", "not-a-cursor")
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     void givenExistentCustomerId_whenDeactivatingCustomer_thenReturnSuccess() throws Exception {
         var customer = CustomerFactory.create();
@@ -172,4 +276,115 @@ public class CustomerControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Customer is already inactive."));
     }
+
+    @Test
+    void givenArrayOfCustomers_whenBulkCreating_thenReportOutcomePerRecord() throws Exception {
+        // Given: one new customer, one already registered, one repeated in the request and one invalid
+        var existing = CustomerFactory.create();
+        existing.setNationalId("70000002");
+        customerRepository.save(existing);
+        var requests = List.of(
+                bulkRequest("70000001"),
+                bulkRequest(existing.getNationalId()),
+                bulkRequest("70000001"),
+                bulkRequest("12"));
+
+        // When & Then
+        var result = mockMvc.perform(post("/customer/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(4))
+                .andExpect(jsonPath("$.data.created").value(1))
+                .andExpect(jsonPath("$.data.duplicates").value(2))
+                .andExpect(jsonPath("$.data.invalid").value(1))
+                .andExpect(jsonPath("$.data.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.data.results[0].customerId").isNumber())
+                .andExpect(jsonPath("$.data.results[1].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.data.results[2].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.data.results[3].status").value("INVALID"))
+                .andReturn();
+
+        long customerId = objectMapper.readTree(result.getResponse().getContentAsString())
+                .at("/data/results/0/customerId").asLong();
+        assertThat(loanLimitRepository.findByCustomerId(customerId).orElseThrow().getCreditLimit())
+                .isEqualByComparingTo(properties.getDefaultLoanLimit());
+        assertThat(preferenceRepository.findByCustomerId(customerId)).isPresent();
+    }
+
+    @Test
+    void givenNdjsonStream_whenBulkCreating_thenEveryLineIsCreated() throws Exception {
+        var body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append(objectMapper.writeValueAsString(bulkRequest("7100000" + i))).append('\n');
+        }
+
+        mockMvc.perform(post("/customer/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(5))
+                .andExpect(jsonPath("$.data.created").value(5));
+    }
+
+    @Test
+    void givenFilter_whenExportingAsNdjson_thenStreamOnlyMatchingCustomers() throws Exception {
+        var matching = CustomerFactory.create();
+        LoanLimitFactory.create(matching);
+        var other = CustomerFactory.create();
+        other.setNationalId("99999999");
+        customerRepository.save(other);
+
+        var asyncResult = mockMvc.perform(get("/customer/export").param("nationalId", "12345"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var response = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = response.lines().toList();
+        assertThat(lines).hasSize(1);
+        var row = objectMapper.readTree(lines.get(0));
+        assertThat(row.get("id").asLong()).isEqualTo(matching.getId());
+        assertThat(row.get("creditLimit").decimalValue()).isNotNull();
+    }
+
+    @Test
+    void givenGzipRequested_whenExportingAsCsv_thenReturnCompressedCsvWithHeader() throws Exception {
+        CustomerFactory.create();
+        CustomerFactory.create();
+
+        var asyncResult = mockMvc.perform(get("/customer/export").param("format", "csv").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var bytes = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String csv;
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        var lines = csv.lines().toList();
+        assertThat(lines.get(0)).startsWith("id,firstName,lastName");
+        assertThat(lines).hasSize(3);
+    }
+
+    private static CustomerRequest bulkRequest(String nationalId) {
+        var faker = Faker.instance();
+        return CustomerRequest.builder()
+                .firstName(faker.name().firstName())
+                .lastName(faker.name().lastName())
+                .email(faker.internet().emailAddress())
+                .currency("KES")
+                .income(BigDecimal.valueOf(1000))
+                .nationalId(nationalId)
+                .phoneNumber("+2547" + faker.number().digits(8))
+                .customerNotificationPreferencesDto(CustomerNotificationPreferencesDto.builder()
+                        .smsEnabled(true)
+                        .build())
+                .build();
+    }
 }
@@ -0,0 +1,87 @@
+package com.example.customerservice.controller;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.example.customerservice.enums.LoanLimitAdjustment;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.LoanFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.repository.LoanLimitRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class LoanLimitAdminControllerIntegrationTest extends AbstractIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    AppConfig properties;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @BeforeEach
+    void drainParkingQueue() {
+        while (rabbitTemplate.receive(properties.getParkingQueue()) != null) {
+            // discard events parked by other tests
+        }
+    }
+
+    @Test
+    void givenParkedEvent_whenReplayed_thenLoanLimitIsAdjusted() throws Exception {
+        // Given
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        var loan = LoanFactory.create(customer, LoanProductFactory.create());
+        var event = LoanLimitAdjustmentEventDto.builder()
+                .adjustment(LoanLimitAdjustment.ADDITION)
+                .loanId(loan.getId())
+                .customerId(customer.getId())
+                .build();
+        rabbitTemplate.convertAndSend(properties.getDeadLetterExchange(), properties.getParkingRoutingKey(), event);
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(5))
+                .until(() -> rabbitTemplate.execute(channel -> channel.messageCount(properties.getParkingQueue())) == 1);
+
+        // When
+        mockMvc.perform(post("/admin/loan-limit/parked/replay").param("ratePerSecond", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(1));
+
+        // Then
+        var expected = new BigDecimal("1050.00");
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(5))
+                .until(() -> loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow()
+                        .getAvailableLimit().compareTo(expected) == 0);
+        assertThat(rabbitTemplate.receive(properties.getParkingQueue())).isNull();
+    }
+
+    @Test
+    void givenRemoteCaller_whenReplaying_thenForbidden() throws Exception {
+        mockMvc.perform(post("/admin/loan-limit/parked/replay")
+                        .with(request -> {
+                            request.setRemoteAddr("10.1.2.3");
+                            return request;
+                        }))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
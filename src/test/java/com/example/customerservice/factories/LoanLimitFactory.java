@@ -3,6 +3,7 @@ package com.example.customerservice.factories;
 import com.example.customerservice.model.Customer;
 import com.example.customerservice.model.LoanLimit;
 import com.example.customerservice.repository.CustomerRepository;
+import com.example.customerservice.repository.LoanLimitLedger;
 import com.example.customerservice.repository.LoanLimitRepository;
 import com.example.customerservice.testHelpers.SpringContext;
 import jakarta.persistence.JoinColumn;
@@ -10,6 +11,7 @@ import jakarta.persistence.OneToOne;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class LoanLimitFactory {
     public static LoanLimit create(Customer customer) {
@@ -18,7 +20,9 @@ public class LoanLimitFactory {
         loanLimit.setAvailableLimit(BigDecimal.valueOf(1000));
         loanLimit.setCurrency("KES");
         loanLimit.setCustomer(customer);
-        return SpringContext.getBean(LoanLimitRepository.class).save(loanLimit);
+        var saved = SpringContext.getBean(LoanLimitRepository.class).save(loanLimit);
+        SpringContext.getBean(LoanLimitLedger.class).open(List.of(customer.getId()));
+        return saved;
     }
 
     public static void deleteAll() {
@@ -0,0 +1,90 @@
+package com.example.customerservice.helper;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.enums.LoanLimitAdjustment;
+import com.example.customerservice.repository.ProcessedLoanLimitEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanLimitEventDeduplicatorIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    LoanLimitEventDeduplicator eventDeduplicator;
+
+    @Autowired
+    ProcessedLoanLimitEventRepository processedEventRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void givenKeyClaimedConcurrently_whenClaimingABatch_thenOnlyThatKeyIsSkipped() throws Exception {
+        // Given: another consumer has claimed one of the keys but not committed yet, so the lookup misses it
+        var contested = "1:addition:" + UUID.randomUUID();
+        var fresh = "2:addition:" + UUID.randomUUID();
+        var transactions = new TransactionTemplate(transactionManager);
+        var claimedElsewhere = new CountDownLatch(1);
+        var commitElsewhere = new CountDownLatch(1);
+
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var other = executor.submit(() -> transactions.executeWithoutResult(status -> {
+                processedEventRepository.insertIfAbsent(contested, LocalDateTime.now());
+                claimedElsewhere.countDown();
+                await(commitElsewhere);
+            }));
+            assertThat(claimedElsewhere.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // When: the batch claim blocks on the contested key until the other consumer commits
+            var batch = executor.submit(() -> transactions.execute(status ->
+                    eventDeduplicator.claimAll(List.of(contested, fresh))));
+            Thread.sleep(500);
+            commitElsewhere.countDown();
+            other.get(10, TimeUnit.SECONDS);
+            Set<String> claimed = batch.get(10, TimeUnit.SECONDS);
+
+            // Then: the batch keeps its other key instead of failing on the duplicate
+            assertThat(claimed).containsExactly(fresh);
+        }
+        assertThat(processedEventRepository.existsById(fresh)).isTrue();
+    }
+
+    @Test
+    void givenEventIdsLongerThanTheKeyColumnSharingAPrefix_whenClaimed_thenBothAreClaimed() {
+        // Given: ids that would truncate to the same event_key
+        var prefix = "x".repeat(LoanLimitEventDeduplicator.MAX_KEY_LENGTH) + UUID.randomUUID();
+        var first = LoanLimitEventDeduplicator.keyOf(1L, LoanLimitAdjustment.ADDITION, prefix + "-1");
+        var second = LoanLimitEventDeduplicator.keyOf(1L, LoanLimitAdjustment.ADDITION, prefix + "-2");
+        var transactions = new TransactionTemplate(transactionManager);
+
+        // When
+        boolean firstClaimed = Boolean.TRUE.equals(transactions.execute(status -> eventDeduplicator.claim(first)));
+        boolean secondClaimed = Boolean.TRUE.equals(transactions.execute(status -> eventDeduplicator.claim(second)));
+        boolean firstClaimedAgain = Boolean.TRUE.equals(transactions.execute(status -> eventDeduplicator.claim(first)));
+
+        // Then
+        assertThat(first).hasSizeLessThanOrEqualTo(LoanLimitEventDeduplicator.MAX_KEY_LENGTH).isNotEqualTo(second);
+        assertThat(firstClaimed).isTrue();
+        assertThat(secondClaimed).isTrue();
+        assertThat(firstClaimedAgain).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
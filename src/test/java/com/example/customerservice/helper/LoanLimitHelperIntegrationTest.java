@@ -0,0 +1,121 @@
+package com.example.customerservice.helper;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.repository.LoanLimitRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanLimitHelperIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    LoanLimitHelper loanLimitHelper;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void givenConcurrentIncreases_whenAdjustingTheSameCustomer_thenNoAdjustmentIsLost() throws Exception {
+        // Given
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        int adjustments = 20;
+
+        // When: every increase runs on its own thread and transaction
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var futures = IntStream.range(0, adjustments)
+                    .mapToObj(i -> executor.submit(() -> loanLimitHelper.adjustLoanLimit(customer.getId(), true)))
+                    .toList();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+
+        // Then: the result matches applying the increases one after another
+        var expected = BigDecimal.valueOf(1000);
+        for (int i = 0; i < adjustments; i++) {
+            expected = expected.multiply(new BigDecimal("1.05")).setScale(2, RoundingMode.HALF_UP);
+        }
+        var loanLimit = loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow();
+        assertThat(loanLimit.getAvailableLimit()).isEqualByComparingTo(expected);
+        assertThat(loanLimit.getVersion()).isEqualTo(adjustments);
+    }
+
+    @Test
+    void givenLimitAtZero_whenReducing_thenLimitIsLeftUntouched() {
+        // Given
+        var customer = CustomerFactory.create();
+        var loanLimit = LoanLimitFactory.create(customer);
+        loanLimit.setAvailableLimit(BigDecimal.ZERO);
+        loanLimitRepository.save(loanLimit);
+
+        // When
+        loanLimitHelper.adjustLoanLimit(customer.getId(), false);
+
+        // Then
+        var reloaded = loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow();
+        assertThat(reloaded.getAvailableLimit()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void givenLimitAtZero_whenReducingInABatch_thenLimitIsLeftUntouchedAndCountedAtMinimum() {
+        // Given
+        var customer = CustomerFactory.create();
+        var loanLimit = LoanLimitFactory.create(customer);
+        loanLimit.setAvailableLimit(BigDecimal.ZERO);
+        loanLimitRepository.save(loanLimit);
+        var atMinimum = meterRegistry.counter(LoanLimitHelper.OUTCOMES, "outcome", "already_at_minimum");
+        var reduced = meterRegistry.counter(LoanLimitHelper.OUTCOMES, "outcome", "reduced");
+        double atMinimumBefore = atMinimum.count();
+        double reducedBefore = reduced.count();
+
+        // When
+        loanLimitHelper.adjustLoanLimits(List.of(new LoanLimitHelper.PendingAdjustment(customer.getId(), false, null)));
+
+        // Then: no update, no ledger entry
+        var reloaded = loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow();
+        assertThat(reloaded.getAvailableLimit()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+        assertThat(reloaded.getLedgerSequence()).isZero();
+        assertThat(atMinimum.count() - atMinimumBefore).isEqualTo(1);
+        assertThat(reduced.count() - reducedBefore).isZero();
+    }
+
+    @Test
+    void givenLimitAtZero_whenIncreasing_thenNothingIsWrittenOrRecordedAndItIsCountedUnchanged() {
+        // Given
+        var customer = CustomerFactory.create();
+        var loanLimit = LoanLimitFactory.create(customer);
+        loanLimit.setAvailableLimit(BigDecimal.ZERO);
+        loanLimitRepository.save(loanLimit);
+        var unchanged = meterRegistry.counter(LoanLimitHelper.OUTCOMES, "outcome", "unchanged");
+        var increased = meterRegistry.counter(LoanLimitHelper.OUTCOMES, "outcome", "increased");
+        double unchangedBefore = unchanged.count();
+        double increasedBefore = increased.count();
+
+        // When
+        loanLimitHelper.adjustLoanLimit(customer.getId(), true);
+
+        // Then: 0 * 1.05 is still 0, so no update and no ledger entry
+        var reloaded = loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow();
+        assertThat(reloaded.getAvailableLimit()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+        assertThat(reloaded.getLedgerSequence()).isZero();
+        assertThat(unchanged.count() - unchangedBefore).isEqualTo(1);
+        assertThat(increased.count() - increasedBefore).isZero();
+    }
+}
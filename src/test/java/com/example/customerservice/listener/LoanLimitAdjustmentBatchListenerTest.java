@@ -0,0 +1,66 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.LoanFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.repository.LoanLimitRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "rabbitmq.loan.limit.listener.mode=batch")
+public class LoanLimitAdjustmentBatchListenerTest extends AbstractIntegrationTest {
+
+    @Autowired
+    RabbitTemplate defaultRabbitTemplate;
+
+    @Autowired
+    AppConfig applicationProperties;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Test
+    void givenSeveralEventsForOneCustomer_whenConsumedAsBatch_thenNetAdjustmentIsApplied() {
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        var loanProduct = LoanProductFactory.create();
+        var loan = LoanFactory.create(customer, loanProduct);
+
+        var request = """
+                {
+                  "adjustment": "%s",
+                  "loanId": %s,
+                  "customerId": %s
+                }
+                """;
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(),
+                request.formatted("subtraction", loan.getId(), customer.getId()));
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(),
+                request.formatted("subtraction", loan.getId(), customer.getId()));
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(),
+                request.formatted("addition", loan.getId(), customer.getId()));
+
+        // 1000 * 0.95 * 0.95 * 1.05, whichever way the events are split across batches
+        var expected = new BigDecimal("947.63");
+        Awaitility
+                .await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> loanLimitRepository.findByCustomerId(customer.getId())
+                        .map(limit -> limit.getAvailableLimit().compareTo(expected) == 0)
+                        .orElse(false));
+
+        assertThat(loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow().getAvailableLimit())
+                .isEqualByComparingTo(expected);
+    }
+}
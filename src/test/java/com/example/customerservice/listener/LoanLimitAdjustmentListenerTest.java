@@ -3,6 +3,7 @@ package com.example.customerservice.listener;
 import com.example.customerservice.AbstractIntegrationTest;
 import com.example.customerservice.config.AppConfig;
 import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.example.customerservice.enums.LoanLimitAdjustment;
 import com.example.customerservice.factories.CustomerFactory;
 import com.example.customerservice.factories.LoanFactory;
 import com.example.customerservice.factories.LoanLimitFactory;
@@ -13,14 +14,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -45,7 +50,7 @@ public class LoanLimitAdjustmentListenerTest extends AbstractIntegrationTest {
         var loan = LoanFactory.create(customer,loanProduct);
 
         var loanLimitAdjustmentEventDto = LoanLimitAdjustmentEventDto.builder()
-                                        .adjustment("subtraction")
+                                        .adjustment(LoanLimitAdjustment.SUBTRACTION)
                                         .loanId(loan.getId())
                                         .customerId(customer.getId())
                                         .build();
@@ -84,7 +89,7 @@ public class LoanLimitAdjustmentListenerTest extends AbstractIntegrationTest {
         var loan = LoanFactory.create(customer,loanProduct);
 
         var loanLimitAdjustmentEventDto = LoanLimitAdjustmentEventDto.builder()
-                .adjustment("addition")
+                .adjustment(LoanLimitAdjustment.ADDITION)
                 .loanId(loan.getId())
                 .customerId(customer.getId())
                 .build();
@@ -116,4 +121,98 @@ public class LoanLimitAdjustmentListenerTest extends AbstractIntegrationTest {
 
     }
 
+    @Test
+    void givenSameEventDeliveredTwice_whenHandled_thenLoanLimitIsAdjustedOnce() {
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        var loanProduct = LoanProductFactory.create();
+        var loan = LoanFactory.create(customer, loanProduct);
+
+        var request = """
+                {
+                  "adjustment": "addition",
+                  "loanId": %s,
+                  "customerId": %s,
+                  "eventId": "%s"
+                }
+                """.formatted(loan.getId(), customer.getId(), UUID.randomUUID());
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(), request);
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(), request);
+
+        var expected = new BigDecimal("1050.00");
+        Awaitility
+                .await()
+                .atMost(Duration.ofSeconds(5))
+                .until(() -> loanLimitRepository.findByCustomerId(customer.getId())
+                        .map(limit -> limit.getAvailableLimit().compareTo(expected) == 0)
+                        .orElse(false));
+
+        // Leave the redelivery time to land before checking it was dropped
+        Awaitility
+                .await()
+                .during(Duration.ofSeconds(1))
+                .atMost(Duration.ofSeconds(3))
+                .until(() -> loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow()
+                        .getAvailableLimit().compareTo(expected) == 0);
+    }
+
+    @Test
+    void givenEventWithoutCustomerId_whenHandled_thenItIsParked() {
+        var request = LoanLimitAdjustmentEventDto.builder()
+                .adjustment(LoanLimitAdjustment.ADDITION)
+                .loanId(1L)
+                .eventId(UUID.randomUUID().toString())
+                .build();
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(), request);
+
+        Awaitility
+                .await()
+                .atMost(Duration.ofSeconds(5))
+                .until(() -> {
+                    var parked = defaultRabbitTemplate.receive(applicationProperties.getParkingQueue());
+                    return parked != null && new String(parked.getBody()).contains(request.getEventId());
+                });
+    }
+
+    @Test
+    void givenEventSentAsDto_whenHandled_thenLoanLimitIsAdjusted() {
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        var loan = LoanFactory.create(customer, LoanProductFactory.create());
+
+        var request = LoanLimitAdjustmentEventDto.builder()
+                .adjustment(LoanLimitAdjustment.ADDITION)
+                .loanId(loan.getId())
+                .customerId(customer.getId())
+                .build();
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(), request);
+
+        awaitAvailableLimit(customer.getId(), new BigDecimal("1050.00"));
+    }
+
+    @Test
+    void givenEventSentAsPlainText_whenHandled_thenLoanLimitIsAdjusted() {
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        var loan = LoanFactory.create(customer, LoanProductFactory.create());
+
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN);
+        var body = """
+                {"adjustment": "subtraction", "loanId": %s, "customerId": %s}
+                """.formatted(loan.getId(), customer.getId());
+        defaultRabbitTemplate.send(applicationProperties.getExchange(), applicationProperties.getRoutingKey(),
+                new Message(body.getBytes(StandardCharsets.UTF_8), properties));
+
+        awaitAvailableLimit(customer.getId(), new BigDecimal("950.00"));
+    }
+
+    private void awaitAvailableLimit(Long customerId, BigDecimal expected) {
+        Awaitility
+                .await()
+                .atMost(Duration.ofSeconds(5))
+                .until(() -> loanLimitRepository.findByCustomerId(customerId)
+                        .map(limit -> limit.getAvailableLimit().compareTo(expected) == 0)
+                        .orElse(false));
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.LoanFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.repository.LoanLimitRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "rabbitmq.loan.limit.listener.mode=partitioned",
+        "rabbitmq.loan.limit.partition.count=2"
+})
+public class LoanLimitAdjustmentPartitionedListenerTest extends AbstractIntegrationTest {
+
+    @Autowired
+    RabbitTemplate defaultRabbitTemplate;
+
+    @Autowired
+    AppConfig applicationProperties;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Test
+    void givenEventsForSeveralCustomers_whenDispatchedToLanes_thenEachCustomerIsAdjusted() {
+        var loanProduct = LoanProductFactory.create();
+        var first = CustomerFactory.create();
+        LoanLimitFactory.create(first);
+        var firstLoan = LoanFactory.create(first, loanProduct);
+        var second = CustomerFactory.create();
+        LoanLimitFactory.create(second);
+        var secondLoan = LoanFactory.create(second, loanProduct);
+
+        var request = """
+                {
+                  "adjustment": "%s",
+                  "loanId": %s,
+                  "customerId": %s
+                }
+                """;
+        for (int i = 0; i < 3; i++) {
+            defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(),
+                    request.formatted("subtraction", firstLoan.getId(), first.getId()));
+            defaultRabbitTemplate.convertAndSend(applicationProperties.getExchange(), applicationProperties.getRoutingKey(),
+                    request.formatted("addition", secondLoan.getId(), second.getId()));
+        }
+
+        // 1000 * 0.95^3 and 1000 * 1.05^3, each rounded per event by the column scale
+        Awaitility
+                .await()
+                .atMost(Duration.ofSeconds(10))
+                .until(() -> availableLimit(first.getId()).compareTo(new BigDecimal("857.38")) == 0
+                        && availableLimit(second.getId()).compareTo(new BigDecimal("1157.63")) == 0);
+
+        assertThat(availableLimit(first.getId())).isEqualByComparingTo("857.38");
+        assertThat(availableLimit(second.getId())).isEqualByComparingTo("1157.63");
+    }
+
+    private BigDecimal availableLimit(Long customerId) {
+        return loanLimitRepository.findByCustomerId(customerId).orElseThrow().getAvailableLimit();
+    }
+}
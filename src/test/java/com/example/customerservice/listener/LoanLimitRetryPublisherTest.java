@@ -0,0 +1,108 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.config.RabbitMQConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LoanLimitRetryPublisherTest extends AbstractIntegrationTest {
+
+    @Autowired
+    LoanLimitRetryPublisher retryPublisher;
+
+    @Autowired
+    RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    RabbitMQConfig rabbitMQConfig;
+
+    @Autowired
+    AppConfig properties;
+
+    @Autowired
+    RabbitAdmin rabbitAdmin;
+
+    @BeforeEach
+    void drainQueues() {
+        while (rabbitTemplate.receive(properties.getParkingQueue()) != null) {
+            // discard events parked by other tests
+        }
+        while (rabbitTemplate.receive(rabbitMQConfig.retryQueueName(1)) != null) {
+            // discard events retried by other tests
+        }
+    }
+
+    @Test
+    void givenReceivedPersistentEvent_whenRetried_thenTheRetryCopyIsPersistent() {
+        // Given
+        var eventId = UUID.randomUUID().toString();
+
+        // When
+        retryPublisher.retryOrPark(received(eventId), new IllegalStateException("database unavailable"));
+
+        // Then: the first delay queue holds it for longer than the receive waits
+        var retried = rabbitTemplate.receive(rabbitMQConfig.retryQueueName(1), 2000);
+        assertThat(retried).isNotNull();
+        assertThat(new String(retried.getBody(), StandardCharsets.UTF_8)).contains(eventId);
+        assertThat(retried.getMessageProperties().getReceivedDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+        assertThat((Integer) retried.getMessageProperties().getHeader(LoanLimitRetryPublisher.RETRY_COUNT_HEADER))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void givenReceivedPersistentEvent_whenParked_thenTheParkedCopyIsPersistent() {
+        // Given
+        var eventId = UUID.randomUUID().toString();
+
+        // When
+        retryPublisher.park(received(eventId), "no customer id");
+
+        // Then
+        var parked = rabbitTemplate.receive(properties.getParkingQueue(), 2000);
+        assertThat(parked).isNotNull();
+        assertThat(new String(parked.getBody(), StandardCharsets.UTF_8)).contains(eventId);
+        assertThat(parked.getMessageProperties().getReceivedDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+    }
+
+    @Test
+    void givenNoQueueBoundForTheRetry_whenRetried_thenItFailsSoTheDeliveryIsNotAcked() {
+        // Given: the first delay queue, and with it its binding, is gone
+        rabbitAdmin.deleteQueue(rabbitMQConfig.retryQueueName(1));
+
+        try {
+            // When / Then: the broker returns the copy as unroutable
+            assertThatThrownBy(() -> retryPublisher.retryOrPark(received(UUID.randomUUID().toString()),
+                    new IllegalStateException("database unavailable")))
+                    .isInstanceOf(AmqpException.class)
+                    .hasMessageContaining("not routed");
+        } finally {
+            rabbitAdmin.initialize();
+        }
+    }
+
+    /**
+     * Properties as a listener gets them: the delivery mode only shows up as the received one.
+     */
+    private static Message received(String eventId) {
+        var messageProperties = new MessageProperties();
+        messageProperties.setDeliveryMode(null);
+        messageProperties.setReceivedDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        var body = "{\"eventId\":\"" + eventId + "\",\"adjustment\":\"ADDITION\",\"loanId\":1}";
+        return new Message(body.getBytes(StandardCharsets.UTF_8), messageProperties);
+    }
+}
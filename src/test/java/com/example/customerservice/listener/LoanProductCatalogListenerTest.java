@@ -0,0 +1,54 @@
+package com.example.customerservice.listener;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.cache.CachedLoanProduct;
+import com.example.customerservice.cache.LoanProductCatalog;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.LoanProductChangedEventDto;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.repository.LoanProductRepository;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanProductCatalogListenerTest extends AbstractIntegrationTest {
+
+    @Autowired
+    RabbitTemplate defaultRabbitTemplate;
+
+    @Autowired
+    AppConfig applicationProperties;
+
+    @Autowired
+    LoanProductCatalog loanProductCatalog;
+
+    @Autowired
+    LoanProductRepository loanProductRepository;
+
+    @Test
+    void givenRenamedLoanProduct_whenChangeIsBroadcast_thenCatalogServesTheNewName() {
+        // Given: the catalog holds the product under its old name
+        var product = LoanProductFactory.create();
+        loanProductCatalog.reload();
+        var newName = "Asset Finance " + UUID.randomUUID();
+        product.setName(newName);
+        loanProductRepository.save(product);
+        assertThat(loanProductCatalog.findById(product.getId())).map(CachedLoanProduct::name).contains("Mortgage Loan");
+
+        // When
+        defaultRabbitTemplate.convertAndSend(applicationProperties.getLoanProductExchange(), "",
+                new LoanProductChangedEventDto(product.getId()));
+
+        // Then
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(10))
+                .untilAsserted(() -> assertThat(loanProductCatalog.findByName(newName.toUpperCase()))
+                        .map(CachedLoanProduct::id).contains(product.getId()));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.customerservice.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the latencies of one operation of a load test run. Latencies are measured from the moment the
+ * operation was scheduled to start rather than from when it actually started, so a stalled service shows up
+ * in the tail instead of silently lowering the offered rate.
+ */
+class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private final AtomicLong errors = new AtomicLong();
+
+    synchronized void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    void error() {
+        errors.incrementAndGet();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    /**
+     * @return operation count, errors, throughput over {@code elapsedNanos} and p50/p99/p999/max in milliseconds
+     */
+    synchronized Map<String, Object> summary(long elapsedNanos) {
+        var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errors.get());
+        summary.put("throughputPerSecond", round(count / (elapsedNanos / 1e9)));
+        summary.put("p50Ms", millis(percentile(sorted, 0.50)));
+        summary.put("p99Ms", millis(percentile(sorted, 0.99)));
+        summary.put("p999Ms", millis(percentile(sorted, 0.999)));
+        summary.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.customerservice.loadtest;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test knobs, read from system properties so CI can pass them with {@code -D}:
+ * <ul>
+ *     <li>{@code loadtest.customers}: customers seeded (with a loan limit and a loan each) before the run</li>
+ *     <li>{@code loadtest.rate}: operations started per second, across all operation types</li>
+ *     <li>{@code loadtest.durationSeconds}: length of the run</li>
+ *     <li>{@code loadtest.mix}: relative weights of {@code get}, {@code post} and {@code event}</li>
+ *     <li>{@code loadtest.maxErrorRate}: share of failed operations above which the run fails</li>
+ *     <li>{@code loadtest.summary}: where the JSON summary is written</li>
+ * </ul>
+ */
+record LoadTestSettings(int customers, int rate, int durationSeconds, Map<Operation, Integer> mix,
+                        double maxErrorRate, Path summary) {
+
+    enum Operation {GET, POST, EVENT}
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.customers", 1_000),
+                Integer.getInteger("loadtest.rate", 200),
+                Integer.getInteger("loadtest.durationSeconds", 60),
+                parseMix(System.getProperty("loadtest.mix", "get:70,post:10,event:20")),
+                Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01")),
+                Path.of(System.getProperty("loadtest.summary", "target/loadtest-summary.json")));
+    }
+
+    long totalOperations() {
+        return (long) rate * durationSeconds;
+    }
+
+    /**
+     * Operation of the {@code index}-th arrival. Every block of (sum of weights) arrivals visits each slot once, in
+     * a stride order that spreads the operations of each weight across the block.
+     */
+    Operation operationOf(long index) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long slot = (index * stride(total)) % total;
+        for (var weight : mix.entrySet()) {
+            slot -= weight.getValue();
+            if (slot < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty load test mix");
+    }
+
+    /**
+     * A stride near the golden section of {@code total} and coprime with it, so that stepping by it modulo
+     * {@code total} covers every slot before repeating one.
+     */
+    static int stride(int total) {
+        int stride = Math.max(1, (int) Math.round(total * 0.618));
+        while (BigInteger.valueOf(stride).gcd(BigInteger.valueOf(total)).intValue() != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            var parts = entry.trim().split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.customerservice.loadtest;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.CustomerServiceApplication;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.dto.CustomerNotificationPreferencesDto;
+import com.example.customerservice.dto.CustomerRequest;
+import com.example.customerservice.dto.LoanLimitAdjustmentEventDto;
+import com.example.customerservice.enums.LoanLimitAdjustment;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.LoanFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.helper.LoanLimitHelper;
+import com.example.customerservice.loadtest.LoadTestSettings.Operation;
+import com.example.customerservice.model.Loan;
+import com.example.customerservice.testHelpers.CustomConfiguration;
+import com.example.customerservice.testHelpers.RabbitMqTestHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@code GET /customer}, {@code POST /customer} and {@code loan.limit.queue} events at a fixed arrival rate
+ * against the real HTTP server, MySQL and RabbitMQ containers, then writes a JSON summary with throughput and
+ * p50/p99/p999 latencies per operation (see {@link LoadTestSettings} for the knobs). Arrivals are open-loop: each
+ * operation starts on schedule on its own virtual thread whether or not earlier ones have finished.
+ *
+ * <p>HTTP latencies are client-side. Event latencies come from the listener's {@code loan.limit.events.lag}
+ * (publish to pick-up) and {@code loan.limit.events.processing} timers; events/s is measured from the first
+ * publish until every event has been applied or parked. Parked events count as errors. Excluded from the default
+ * build; run with {@code mvn test -Ploadtest}.
+ */
+@Tag("loadtest")
+@Slf4j
+@SpringBootTest(classes = {CustomConfiguration.class, CustomerServiceApplication.class},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.metrics.distribution.percentiles.loan.limit.events=0.5,0.99,0.999")
+public class MixedLoadTest extends AbstractIntegrationTest {
+    private static final AtomicLong NATIONAL_IDS = new AtomicLong(40_000_000);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    AppConfig appConfig;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${rabbitmq.loan.limit.listener.mode}")
+    String listenerMode;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void sustainMixedLoad() throws Exception {
+        var settings = LoadTestSettings.fromSystemProperties();
+        RabbitMqTestHelper.createLoanLimitQueue(appConfig, rabbitTemplate);
+        var loans = seed(settings.customers());
+
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        var processing = meterRegistry.timer("loan.limit.events.processing", "mode", listenerMode);
+        double appliedBefore = appliedEvents();
+        double parkedBefore = parkedEvents();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < settings.totalOperations(); i++) {
+                long scheduled = start + i * intervalNanos;
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+                var operation = settings.operationOf(i);
+                var recorder = recorders.get(operation);
+                long n = i;
+                executor.submit(() -> {
+                    try {
+                        run(operation, n, loans);
+                        recorder.record(System.nanoTime() - scheduled);
+                    } catch (Exception e) {
+                        log.debug("{} failed: {}", operation, e.getMessage());
+                        recorder.error();
+                    }
+                });
+            }
+        }
+        long httpElapsed = System.nanoTime() - start;
+
+        // A parked event is never applied, so it completes the wait as a failure instead
+        long events = recorders.get(Operation.EVENT).count();
+        Awaitility.await()
+                .atMost(Duration.ofMinutes(2))
+                .pollInterval(Duration.ofMillis(100))
+                .until(() -> appliedEvents() - appliedBefore + parkedEvents() - parkedBefore >= events);
+        long eventsElapsed = System.nanoTime() - start;
+        long parked = Math.round(parkedEvents() - parkedBefore);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("settings", settings);
+        summary.put("getCustomers", recorders.get(Operation.GET).summary(httpElapsed));
+        summary.put("createCustomer", recorders.get(Operation.POST).summary(httpElapsed));
+        summary.put("publishEvent", recorders.get(Operation.EVENT).summary(httpElapsed));
+        Map<String, Object> consumed = new LinkedHashMap<>();
+        consumed.put("count", events);
+        consumed.put("parked", parked);
+        consumed.put("throughputPerSecond", Math.round(events / (eventsElapsed / 1e9) * 100) / 100.0);
+        consumed.put("lag", percentiles(meterRegistry.timer("loan.limit.events.lag")));
+        consumed.put("processing", percentiles(processing));
+        summary.put("consumeEvent", consumed);
+
+        Files.createDirectories(settings.summary().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.summary().toFile(), summary);
+        log.info("Load test summary written to {}:\n{}", settings.summary(),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(summary));
+
+        long operations = recorders.values().stream().mapToLong(r -> r.count() + r.errors()).sum();
+        long errors = recorders.values().stream().mapToLong(LatencyRecorder::errors).sum() + parked;
+        assertThat((double) errors / operations).isLessThanOrEqualTo(settings.maxErrorRate());
+    }
+
+    private void run(Operation operation, long n, List<Loan> loans) throws Exception {
+        switch (operation) {
+            case GET -> send(HttpRequest.newBuilder(uri("/customer?page=" + (n % 5 + 1) + "&size=10")).GET());
+            case POST -> send(HttpRequest.newBuilder(uri("/customer"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(customerRequest()))));
+            case EVENT -> {
+                var loan = loans.get((int) (n % loans.size()));
+                var event = LoanLimitAdjustmentEventDto.builder()
+                        .customerId(loan.getCustomer().getId())
+                        .loanId(loan.getId())
+                        .adjustment(n % 2 == 0 ? LoanLimitAdjustment.ADDITION : LoanLimitAdjustment.SUBTRACTION)
+                        .eventId(UUID.randomUUID().toString())
+                        .build();
+                rabbitTemplate.convertAndSend(appConfig.getExchange(), appConfig.getRoutingKey(), event, message -> {
+                    message.getMessageProperties().setTimestamp(new Date());
+                    return message;
+                });
+            }
+        }
+    }
+
+    private void send(HttpRequest.Builder request) throws Exception {
+        var response = httpClient.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private List<Loan> seed(int customers) {
+        var loanProduct = LoanProductFactory.create();
+        List<Loan> loans = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            var customer = CustomerFactory.create();
+            LoanLimitFactory.create(customer);
+            loans.add(LoanFactory.create(customer, loanProduct));
+        }
+        log.info("Seeded {} customers with loan limits and loans", customers);
+        return loans;
+    }
+
+    /**
+     * Every applied event increments exactly one outcome, in every listener mode.
+     */
+    private double appliedEvents() {
+        return meterRegistry.find(LoanLimitHelper.OUTCOMES).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private double parkedEvents() {
+        return meterRegistry.find("loan.limit.events.failed").tag("outcome", "parked").counters().stream()
+                .mapToDouble(Counter::count).sum();
+    }
+
+    private static Map<String, Double> percentiles(Timer timer) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            var key = switch (String.valueOf(value.percentile())) {
+                case "0.5" -> "p50Ms";
+                case "0.99" -> "p99Ms";
+                case "0.999" -> "p999Ms";
+                default -> "p" + value.percentile() + "Ms";
+            };
+            percentiles.put(key, Math.round(value.value(TimeUnit.MILLISECONDS) * 100) / 100.0);
+        }
+        return percentiles;
+    }
+
+    private static CustomerRequest customerRequest() {
+        return CustomerRequest.builder()
+                .firstName("Load")
+                .lastName("Customer")
+                .email("load@example.com")
+                .phoneNumber("+254700000000")
+                .currency("KES")
+                .income(BigDecimal.valueOf(1000))
+                .nationalId(String.valueOf(NATIONAL_IDS.incrementAndGet()))
+                .customerNotificationPreferencesDto(CustomerNotificationPreferencesDto.builder()
+                        .smsEnabled(true)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.customerservice.repository;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.service.CustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the indexes added by the V2 migration: each hot customer query is run through EXPLAIN against a
+ * table big enough for the optimizer to care, and must not be planned as a full table scan. The statements are
+ * the ones the repository methods actually send, captured by {@link SqlCapturingQueryInterceptor} with their
+ * parameters inlined, so a change to the generated SQL or to the service's sort is explained as it is.
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.data-source-properties.queryInterceptors="
+        + "com.example.customerservice.repository.SqlCapturingQueryInterceptor")
+public class CustomerQueryPlanIntegrationTest extends AbstractIntegrationTest {
+    private static final long FIRST_ID = 900_000_000L;
+    private static final int CUSTOMERS = 2_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @BeforeEach
+    void seedCustomers() {
+        var now = LocalDateTime.now();
+        List<Object[]> customers = new ArrayList<>(CUSTOMERS);
+        List<Object[]> children = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            long id = FIRST_ID + i;
+            customers.add(new Object[]{id, "QueryPlan", String.valueOf(30_000_000 + i), "+2547" + (10_000_000 + i),
+                    i % 10 == 0 ? 0 : 1, Timestamp.valueOf(now.minusMinutes(i))});
+            children.add(new Object[]{id, id});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO customers (id, last_name, national_id, phone_number, active, date_created)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """, customers);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO loan_limits (id, customer_id, credit_limit, available_limit, currency, version)
+                VALUES (?, ?, 1000, 1000, 'KES', 0)
+                """, children);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO customer_notification_preferences
+                    (customer_preference_id, customer_id, sms_enabled, email_enabled, push_notification_enabled)
+                VALUES (?, ?, true, false, false)
+                """, children);
+        jdbcTemplate.execute("ANALYZE TABLE customers, loan_limits, customer_notification_preferences");
+    }
+
+    @AfterEach
+    void removeCustomers() {
+        jdbcTemplate.update("DELETE FROM customer_notification_preferences WHERE customer_id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM loan_limits WHERE customer_id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM customers WHERE id >= ?", FIRST_ID);
+    }
+
+    @Test
+    void givenNationalIdLookups_whenExplained_thenUseNationalIdIndex() {
+        var exists = explain(capture(() -> customerRepository.existsByNationalIdAndActive("30000042", 1)));
+        assertNoFullScan(exists);
+        assertThat(exists.get(0).get("key")).isEqualTo("idx_customers_national_id_active");
+
+        assertNoFullScan(explain(capture(() ->
+                customerRepository.findActiveNationalIds(List.of("30000001", "30000002", "30000003")))));
+    }
+
+    @Test
+    void givenPhoneNumberFilter_whenExplained_thenUsePhoneNumberIndex() {
+        var plan = explain(capture(() -> customerRepository.getCustomers("+254710000042", null, 1, null,
+                PageRequest.of(0, 10, CustomerService.LISTING_SORT))));
+        assertNoFullScan(plan);
+        assertThat(plan.get(0).get("key")).isEqualTo("idx_customers_phone_number_active");
+    }
+
+    @Test
+    void givenListingPage_whenExplained_thenReadIndexInOrderWithoutFilesort() {
+        var plan = explain(capture(() -> customerRepository.getCustomers(null, null, 1, null,
+                PageRequest.of(2, 10, CustomerService.LISTING_SORT))));
+        assertNoFullScan(plan);
+        assertNoFilesort(plan);
+    }
+
+    @Test
+    void givenKeysetPage_whenExplained_thenSeekWithoutFilesort() {
+        var cursor = LocalDateTime.now().minusMinutes(500);
+        var plan = explain(capture(() -> customerRepository.getCustomersAfter(null, null, 1, null, cursor,
+                FIRST_ID + 500, Limit.of(11))));
+        assertNoFullScan(plan);
+        assertNoFilesort(plan);
+    }
+
+    /**
+     * The first SELECT the call sent, which for the listing methods is the page query rather than its count.
+     */
+    private static String capture(Runnable call) {
+        var statements = SqlCapturingQueryInterceptor.capture(call);
+        assertThat(statements).isNotEmpty();
+        return statements.get(0);
+    }
+
+    private List<Map<String, Object>> explain(String sql) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql);
+    }
+
+    private static void assertNoFullScan(List<Map<String, Object>> plan) {
+        assertThat(plan)
+                .as("EXPLAIN %s", plan)
+                .allSatisfy(row -> assertThat(row.get("type")).isNotEqualTo("ALL"));
+    }
+
+    private static void assertNoFilesort(List<Map<String, Object>> plan) {
+        assertThat(plan)
+                .as("EXPLAIN %s", plan)
+                .allSatisfy(row -> assertThat(String.valueOf(row.get("Extra"))).doesNotContain("filesort"));
+    }
+}
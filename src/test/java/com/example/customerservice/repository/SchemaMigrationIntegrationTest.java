@@ -0,0 +1,77 @@
+package com.example.customerservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the migrations, configured as in {@code application.properties}, against a database that
+ * {@code ddl-auto=update} created before the schema moved to Flyway. Such a database is baselined at version 0,
+ * so V1 finds its tables already there and every later column has to be added by a migration of its own.
+ */
+@Testcontainers
+public class SchemaMigrationIntegrationTest {
+
+    private static final MySQLContainer<?> mysqlContainer =
+            new MySQLContainer<>("mysql:8.0")
+                    .withDatabaseName("legacydb")
+                    .withUsername("testuser")
+                    .withPassword("testpass");
+
+    @BeforeAll
+    static void startContainer() {
+        mysqlContainer.start();
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        mysqlContainer.stop();
+    }
+
+    @Test
+    void givenSchemaCreatedByDdlAuto_whenMigrating_thenLimitsGetVersionAndLedgerAndIdsStopAutoIncrementing() {
+        // Given
+        var dataSource = new DriverManagerDataSource(mysqlContainer.getJdbcUrl(), mysqlContainer.getUsername(),
+                mysqlContainer.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql")).execute(dataSource);
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO customers (id, last_name, active) VALUES (1, 'Legacy', 1)");
+        jdbcTemplate.update("""
+                INSERT INTO loan_limits (id, customer_id, credit_limit, available_limit, currency)
+                VALUES (1, 1, 1000, 800, 'KES')
+                """);
+
+        // When
+        var result = Flyway.configure()
+                .dataSource(dataSource)
+                .table("customer_service_schema_history")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        // Then
+        assertThat(result.success).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM loan_limits WHERE id = 1", Long.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT ledger_sequence FROM loan_limits WHERE id = 1", Long.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT balance_after FROM loan_limit_ledger WHERE customer_id = 1 AND sequence = 0", String.class))
+                .isEqualTo("800.00");
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND extra LIKE '%auto_increment%'
+                """, Integer.class))
+                .isZero();
+    }
+}
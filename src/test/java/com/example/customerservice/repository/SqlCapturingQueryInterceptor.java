@@ -0,0 +1,67 @@
+package com.example.customerservice.repository;
+
+import com.mysql.cj.MysqlConnection;
+import com.mysql.cj.Query;
+import com.mysql.cj.interceptors.QueryInterceptor;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.ServerSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Connector/J query interceptor that records the statements sent while {@link #capture} runs on the same thread,
+ * exactly as the server receives them: Hibernate's SQL with the parameters inlined by the client-side prepared
+ * statement. Enabled through {@code spring.datasource.hikari.data-source-properties.queryInterceptors}.
+ */
+public class SqlCapturingQueryInterceptor implements QueryInterceptor {
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    /**
+     * Runs {@code call} and returns the SELECT statements it sent, in order.
+     */
+    public static List<String> capture(Runnable call) {
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            call.run();
+        } finally {
+            STATEMENTS.remove();
+        }
+        return statements.stream()
+                .filter(sql -> sql.stripLeading().regionMatches(true, 0, "select", 0, 6))
+                .toList();
+    }
+
+    @Override
+    public QueryInterceptor init(MysqlConnection conn, Properties props, Log log) {
+        return this;
+    }
+
+    @Override
+    public <T extends Resultset> T preProcess(Supplier<String> sql, Query interceptedQuery) {
+        var statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql.get());
+        }
+        return null;
+    }
+
+    @Override
+    public boolean executeTopLevelOnly() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public <T extends Resultset> T postProcess(Supplier<String> sql, Query interceptedQuery, T originalResultSet,
+                                               ServerSession serverSession) {
+        return null;
+    }
+}
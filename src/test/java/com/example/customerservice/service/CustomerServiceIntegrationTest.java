@@ -0,0 +1,185 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.dto.CustomerFilterRequest;
+import com.example.customerservice.dto.CustomerResponseDto;
+import com.example.customerservice.dto.LoanLimitsDto;
+import com.example.customerservice.dto.PaginateObjectResponse;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.CustomerNotificationPreferencesFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.helper.LoanLimitHelper;
+import com.example.customerservice.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CustomerServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    LoanLimitHelper loanLimitHelper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void preCleanUp() {
+        CustomerNotificationPreferencesFactory.deleteAll();
+        LoanLimitFactory.deleteAll();
+        CustomerFactory.deleteAll();
+    }
+
+    @Test
+    void givenPagesOfDifferentSizes_whenFetchingCustomers_thenQueryCountStaysConstant() {
+        // Given: enough customers to fill both a small and a large page
+        for (int i = 0; i < 30; i++) {
+            var customer = CustomerFactory.create();
+            LoanLimitFactory.create(customer);
+            CustomerNotificationPreferencesFactory.create(customer);
+        }
+
+        // When
+        long smallPageQueries = countStatements(5);
+        long largePageQueries = countStatements(25);
+
+        // Then: one projection query plus the count, whatever the page size
+        assertThat(smallPageQueries).isEqualTo(largePageQueries);
+        assertThat(largePageQueries).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void givenCustomerWithLimitsAndPreferences_whenFetchingCustomers_thenDtoIsFullyPopulated() {
+        // Given
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        CustomerNotificationPreferencesFactory.create(customer);
+
+        // When
+        var content = fetchPage(5).getContent();
+
+        // Then
+        assertThat(content).hasSize(1);
+        assertThat(content.get(0).getId()).isEqualTo(customer.getId());
+        assertThat(content.get(0).getLoanLimits().getCurrency()).isEqualTo("KES");
+        assertThat(content.get(0).getCustomerPreferences().isSmsEnabled()).isTrue();
+    }
+
+    @Test
+    void givenPhoneNumberFilter_whenFetchingCustomers_thenOnlyMatchingCustomersAreCounted() {
+        // Given
+        var match = CustomerFactory.create();
+        var other = CustomerFactory.create();
+        other.setPhoneNumber("0711000000");
+        customerRepository.save(other);
+
+        // When
+        var request = CustomerFilterRequest.builder().page(1).size(5).phoneNumber("0705238260").build();
+        @SuppressWarnings("unchecked")
+        var page = (PaginateObjectResponse<CustomerResponseDto>) customerService.getCustomers(request).getData();
+
+        // Then
+        assertThat(page.getContent()).extracting(CustomerResponseDto::getId).containsExactly(match.getId());
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void givenCachedCustomer_whenSettingLoanLimit_thenCachedDetailsAreRefreshed() {
+        // Given: a customer that has been read once and is now cached
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        CustomerNotificationPreferencesFactory.create(customer);
+        assertThat(customerService.getCustomerDetails(customer.getId()).getLoanLimits().getAvailableLimit())
+                .isEqualByComparingTo("1000");
+
+        // When
+        customerService.setLoanLimit(customer.getId(), LoanLimitsDto.builder()
+                .creditLimit(BigDecimal.valueOf(5000))
+                .availableLimit(BigDecimal.valueOf(250))
+                .build());
+
+        // Then: the write invalidated the entry and the next read sees the new limit
+        var details = customerService.getCustomerDetails(customer.getId());
+        assertThat(details.getLoanLimits().getAvailableLimit()).isEqualByComparingTo("250");
+        assertThat(details.getLoanLimits().getCreditLimit()).isEqualByComparingTo("5000");
+    }
+
+    @Test
+    void givenCustomerCachedInsideWriteTransaction_whenTransactionRollsBack_thenCacheKeepsCommittedLimit() {
+        // Given
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+
+        // When: the customer is cached and its limit changed in a transaction that then rolls back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            customerService.getCustomerDetails(customer.getId());
+            customerService.setLoanLimit(customer.getId(), LoanLimitsDto.builder()
+                    .creditLimit(BigDecimal.valueOf(5000))
+                    .availableLimit(BigDecimal.valueOf(250))
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        // Then
+        var details = customerService.getCustomerDetails(customer.getId());
+        assertThat(details.getLoanLimits().getAvailableLimit()).isEqualByComparingTo("1000");
+        assertThat(details.getLoanLimits().getCreditLimit()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    void givenLoanLimit_whenAdjusted_thenTimerAndOutcomeCounterAreRecorded() {
+        // Given
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        double increasedBefore = increasedOutcomes();
+
+        // When
+        loanLimitHelper.adjustLoanLimit(customer.getId(), true, null);
+
+        // Then
+        var timer = meterRegistry.find(LoanLimitHelper.TIMER).tag("method", "adjustLoanLimit").timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isPositive();
+        assertThat(increasedOutcomes()).isEqualTo(increasedBefore + 1);
+    }
+
+    private double increasedOutcomes() {
+        var counter = meterRegistry.find(LoanLimitHelper.OUTCOMES).tag("outcome", "increased").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private long countStatements(int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        var page = fetchPage(pageSize);
+        assertThat(page.getContent()).hasSize(pageSize);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @SuppressWarnings("unchecked")
+    private PaginateObjectResponse<CustomerResponseDto> fetchPage(int pageSize) {
+        var request = CustomerFilterRequest.builder().page(1).size(pageSize).build();
+        return (PaginateObjectResponse<CustomerResponseDto>) customerService.getCustomers(request).getData();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.dto.LoanLimitLedgerRequest;
+import com.example.customerservice.enums.LoanLimitLedgerEntryType;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.LoanFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.helper.LoanLimitHelper;
+import com.example.customerservice.repository.LoanLimitRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanLimitLedgerServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    LoanLimitLedgerService loanLimitLedgerService;
+
+    @Autowired
+    LoanLimitHelper loanLimitHelper;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void givenDisbursementRepaymentAndNudge_whenRebuilding_thenLedgerMatchesAvailableLimit() {
+        // Given: a limit of 1000
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        var loan = LoanFactory.create(customer, LoanProductFactory.create());
+
+        // When
+        loanLimitLedgerService.record(customer.getId(),
+                new LoanLimitLedgerRequest(LoanLimitLedgerEntryType.DISBURSEMENT, loan.getId(), BigDecimal.valueOf(300)));
+        var repayment = loanLimitLedgerService.record(customer.getId(),
+                new LoanLimitLedgerRequest(LoanLimitLedgerEntryType.REPAYMENT, loan.getId(), BigDecimal.valueOf(100)));
+        loanLimitHelper.adjustLoanLimit(customer.getId(), true);
+        var balance = loanLimitLedgerService.rebuild(customer.getId());
+
+        // Then: opening, disbursement, repayment and the 5% nudge are all on the ledger
+        assertThat(repayment.sequence()).isEqualTo(2);
+        assertThat(repayment.balanceAfter()).isEqualByComparingTo("800");
+        assertThat(balance.sequence()).isEqualTo(3);
+        assertThat(balance.entriesReplayed()).isEqualTo(4);
+        assertThat(balance.availableLimit()).isEqualByComparingTo("840");
+        assertThat(balance.repaired()).isFalse();
+        var nudge = jdbcTemplate.queryForObject(
+                "SELECT amount FROM loan_limit_ledger WHERE customer_id = ? AND sequence = 3", BigDecimal.class,
+                customer.getId());
+        assertThat(nudge).isEqualByComparingTo("40");
+    }
+
+    @Test
+    void givenAvailableLimitWrittenBehindTheLedger_whenRebuilding_thenItIsRepaired() {
+        // Given
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        loanLimitLedgerService.record(customer.getId(),
+                new LoanLimitLedgerRequest(LoanLimitLedgerEntryType.ADJUSTMENT, null, BigDecimal.valueOf(-250)));
+        jdbcTemplate.update("UPDATE loan_limits SET available_limit = 5 WHERE customer_id = ?", customer.getId());
+
+        // When
+        var balance = loanLimitLedgerService.rebuild(customer.getId());
+
+        // Then
+        assertThat(balance.repaired()).isTrue();
+        assertThat(balance.availableLimit()).isEqualByComparingTo("750");
+        assertThat(loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow().getAvailableLimit())
+                .isEqualByComparingTo("750");
+    }
+
+    @Test
+    void givenDriftFollowedByANudge_whenRebuilding_thenTheDriftIsStillRepaired() {
+        // Given: the stored limit is written behind the ledger, then nudged up by 5%
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        jdbcTemplate.update("UPDATE loan_limits SET available_limit = 5 WHERE customer_id = ?", customer.getId());
+        loanLimitHelper.adjustLoanLimit(customer.getId(), true);
+
+        // When
+        var balance = loanLimitLedgerService.rebuild(customer.getId());
+
+        // Then: the nudge was recorded as 5% of the ledger balance, not as the jump to the drifted value
+        var nudge = jdbcTemplate.queryForObject(
+                "SELECT amount FROM loan_limit_ledger WHERE customer_id = ? AND sequence = 1", BigDecimal.class,
+                customer.getId());
+        assertThat(nudge).isEqualByComparingTo("50");
+        assertThat(balance.repaired()).isTrue();
+        assertThat(balance.availableLimit()).isEqualByComparingTo("1050");
+        assertThat(loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow().getAvailableLimit())
+                .isEqualByComparingTo("1050");
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.enums.LoanState;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.LoanFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.model.Customer;
+import com.example.customerservice.model.Loan;
+import com.example.customerservice.model.LoanProduct;
+import com.example.customerservice.repository.LoanLimitRepository;
+import com.example.customerservice.repository.LoanRepository;
+import com.example.customerservice.repository.OverdueLoanSweepRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@TestPropertySource(properties = {
+        "loan.overdue.sweep.workers=4",
+        "loan.overdue.sweep.partitionsPerWorker=2",
+        "loan.overdue.sweep.chunkSize=2"
+})
+public class OverdueLoanSweepPartitionedIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    OverdueLoanSweepService overdueLoanSweepService;
+
+    @Autowired
+    OverdueLoanSweepChunkProcessor chunkProcessor;
+
+    @Autowired
+    OverdueLoanSweepRepository sweepRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void preCleanUp() {
+        LoanFactory.deleteAll();
+        jdbcTemplate.update("DELETE FROM overdue_sweep_checkpoints");
+        jdbcTemplate.update("DELETE FROM notification_outbox");
+    }
+
+    @Test
+    void givenCustomersWithLoansInEveryPartition_whenSweeping_thenEveryLoanAndReductionIsAppliedOnce() {
+        // Given: two customers' loans interleaved by id, so each of the 8 partitions holds loans of both
+        var first = CustomerFactory.create();
+        var second = CustomerFactory.create();
+        LoanLimitFactory.create(first);
+        LoanLimitFactory.create(second);
+        var product = LoanProductFactory.create();
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            loans.add(pastDue(first, product));
+            loans.add(pastDue(second, product));
+        }
+
+        // When
+        long marked = overdueLoanSweepService.sweep(LocalDate.now());
+
+        // Then
+        assertThat(marked).isEqualTo(16);
+        assertThat(loans).allSatisfy(loan -> assertThat(loanRepository.findById(loan.getId()).orElseThrow().getState())
+                .isEqualTo(LoanState.OVERDUE));
+        assertThat(sweepRepository.findUnfinishedPartitions(LocalDate.now())).isEmpty();
+        // Eight 5% reductions of 1000 each, rounded to cents along the way
+        for (Customer customer : List.of(first, second)) {
+            assertThat(loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow().getAvailableLimit())
+                    .isCloseTo(new BigDecimal("663.42"), within(new BigDecimal("0.05")));
+        }
+    }
+
+    @Test
+    void givenSweepStoppedAfterOneChunk_whenSweepingAgain_thenItResumesFromTheCheckpoint() {
+        // Given: five loans in one partition, of which the first chunk of two was swept before the run stopped
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        var product = LoanProductFactory.create();
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            loans.add(pastDue(customer, product));
+        }
+        var today = LocalDate.now();
+        sweepRepository.planIfAbsent(today, today, 1);
+        var firstChunk = chunkProcessor.processNextChunk(today, 0);
+        assertThat(firstChunk.loansMarked()).isEqualTo(2);
+        assertThat(firstChunk.completed()).isFalse();
+        assertThat(checkpoint(today).lastId()).isEqualTo(loans.get(1).getId());
+
+        // When
+        long marked = overdueLoanSweepService.sweep(today);
+
+        // Then: only the loans after the checkpoint were swept by the second run
+        assertThat(marked).isEqualTo(3);
+        var checkpoint = checkpoint(today);
+        assertThat(checkpoint.loansMarked()).isEqualTo(5);
+        assertThat(checkpoint.completed()).isTrue();
+        assertThat(loans).allSatisfy(loan -> assertThat(loanRepository.findById(loan.getId()).orElseThrow().getState())
+                .isEqualTo(LoanState.OVERDUE));
+        // Five 5% reductions of 1000, none applied twice
+        assertThat(loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow().getAvailableLimit())
+                .isCloseTo(new BigDecimal("773.78"), within(new BigDecimal("0.03")));
+    }
+
+    private Checkpoint checkpoint(LocalDate sweepDate) {
+        return jdbcTemplate.queryForObject("""
+                        SELECT last_id, loans_marked, completed FROM overdue_sweep_checkpoints
+                        WHERE sweep_date = ? AND partition_no = 0
+                        """,
+                (rs, rowNum) -> new Checkpoint(rs.getLong("last_id"), rs.getInt("loans_marked"),
+                        rs.getBoolean("completed")),
+                sweepDate);
+    }
+
+    private record Checkpoint(long lastId, int loansMarked, boolean completed) {
+    }
+
+    private Loan pastDue(Customer customer, LoanProduct product) {
+        var loan = LoanFactory.create(customer, product);
+        loan.setDueDate(LocalDate.now().minusDays(3));
+        return loanRepository.save(loan);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.customerservice.service;
+
+import com.example.customerservice.AbstractIntegrationTest;
+import com.example.customerservice.config.AppConfig;
+import com.example.customerservice.enums.LoanState;
+import com.example.customerservice.enums.NotificationChannel;
+import com.example.customerservice.factories.CustomerFactory;
+import com.example.customerservice.factories.CustomerNotificationPreferencesFactory;
+import com.example.customerservice.factories.LoanFactory;
+import com.example.customerservice.factories.LoanLimitFactory;
+import com.example.customerservice.factories.LoanProductFactory;
+import com.example.customerservice.model.Loan;
+import com.example.customerservice.repository.CustomerNotificationPreferenceRepository;
+import com.example.customerservice.repository.LoanLimitRepository;
+import com.example.customerservice.repository.LoanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OverdueLoanSweepServiceIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    OverdueLoanSweepService overdueLoanSweepService;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    LoanLimitRepository loanLimitRepository;
+
+    @Autowired
+    RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    CustomerNotificationPreferenceRepository preferenceRepository;
+
+    @Autowired
+    AppConfig properties;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void preCleanUp() {
+        LoanFactory.deleteAll();
+        jdbcTemplate.update("DELETE FROM overdue_sweep_checkpoints");
+        jdbcTemplate.update("DELETE FROM notification_outbox");
+        while (rabbitTemplate.receive(properties.getLoanOverdueNotificationQueue()) != null) {
+            // discard notifications of other tests
+        }
+    }
+
+    @Test
+    void givenLoansPastTheirDueDate_whenSweeping_thenTheyTurnOverdueOnce() {
+        // Given: two open loans past due and one still running, of a customer notified by email and push only
+        var customer = CustomerFactory.create();
+        var preferences = CustomerNotificationPreferencesFactory.create(customer);
+        preferences.setSmsEnabled(false);
+        preferenceRepository.save(preferences);
+        LoanLimitFactory.create(customer);
+        var product = LoanProductFactory.create();
+        var pastDue = pastDue(LoanFactory.create(customer, product));
+        var alsoPastDue = pastDue(LoanFactory.create(customer, product));
+        var running = LoanFactory.create(customer, product);
+
+        // When
+        long marked = overdueLoanSweepService.sweep(LocalDate.now());
+        long markedOnRerun = overdueLoanSweepService.sweep(LocalDate.now());
+
+        // Then
+        assertThat(marked).isEqualTo(2);
+        assertThat(markedOnRerun).isZero();
+        assertThat(loanRepository.findById(pastDue.getId()).orElseThrow().getState()).isEqualTo(LoanState.OVERDUE);
+        assertThat(loanRepository.findById(alsoPastDue.getId()).orElseThrow().getState()).isEqualTo(LoanState.OVERDUE);
+        assertThat(loanRepository.findById(running.getId()).orElseThrow().getState()).isEqualTo(LoanState.OPEN);
+        // Two 5% reductions of 1000
+        assertThat(loanLimitRepository.findByCustomerId(customer.getId()).orElseThrow().getAvailableLimit())
+                .isEqualByComparingTo("902.50");
+        // One notification per loan and enabled channel
+        for (int i = 0; i < 4; i++) {
+            assertThat(rabbitTemplate.receive(properties.getLoanOverdueNotificationQueue(), 5000)).isNotNull();
+        }
+        assertThat(rabbitTemplate.receive(properties.getLoanOverdueNotificationQueue())).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_outbox", Integer.class)).isZero();
+    }
+
+    @Test
+    void givenCustomerWithoutPreferences_whenSweeping_thenEveryChannelIsNotified() {
+        // Given
+        var customer = CustomerFactory.create();
+        LoanLimitFactory.create(customer);
+        pastDue(LoanFactory.create(customer, LoanProductFactory.create()));
+
+        // When
+        long marked = overdueLoanSweepService.sweep(LocalDate.now());
+
+        // Then: one notification per channel
+        assertThat(marked).isEqualTo(1);
+        for (int i = 0; i < NotificationChannel.values().length; i++) {
+            assertThat(rabbitTemplate.receive(properties.getLoanOverdueNotificationQueue(), 5000)).isNotNull();
+        }
+        assertThat(rabbitTemplate.receive(properties.getLoanOverdueNotificationQueue())).isNull();
+    }
+
+    private Loan pastDue(Loan loan) {
+        loan.setDueDate(LocalDate.now().minusDays(3));
+        return loanRepository.save(loan);
+    }
+}
@@ -17,6 +17,9 @@ public class RabbitMqTestHelper {
     public static void createLoanLimitQueue(AppConfig appConfig, RabbitTemplate rabbitTemplate)
     {
         RabbitAdmin rabbitAdmin = new RabbitAdmin(rabbitTemplate.getConnectionFactory());
-        rabbitAdmin.declareQueue(QueueBuilder.durable(appConfig.getQueueName()).build());
+        rabbitAdmin.declareQueue(QueueBuilder.durable(appConfig.getQueueName())
+                .deadLetterExchange(appConfig.getDeadLetterExchange())
+                .deadLetterRoutingKey(appConfig.getParkingRoutingKey())
+                .build());
     }
 }
@@ -1,3 +1,6 @@
+-- The tables as spring.jpa.hibernate.ddl-auto=update left them before the schema moved to Flyway: no Flyway
+-- history, no id_generators or processed_loan_limit_events, and loan_limits without its version column.
+
 create table customers
 (
     id            bigint auto_increment
@@ -30,20 +33,14 @@ create table customer_notification_preferences
         foreign key (customer_id) references customers (id)
 );
 
-create index customers_national_id_index
-    on customers (national_id);
-
-create index customers_phone_number_index
-    on customers (phone_number);
-
 create table loan_limits
 (
     id              bigint auto_increment
         primary key,
-    available_limit decimal(38, 2) null,
-    credit_limit    decimal(38, 2) null,
-    currency        varchar(255)   null,
-    customer_id     bigint         not null,
+    available_limit decimal(38, 2)   null,
+    credit_limit    decimal(38, 2)   null,
+    currency        varchar(255)     null,
+    customer_id     bigint           not null,
     constraint UK8mel2yq3824ddros8iykg5thp
         unique (customer_id),
     constraint FKositk5jdr72mmxsfshiokgwrj
@@ -64,25 +61,6 @@ create table loan_products
     tenure_value  int                        null
 );
 
-create table fees
-(
-    id               bigint auto_increment
-        primary key,
-    active           int                                           null,
-    amount           decimal(38, 2)                                null,
-    calculation_type enum ('FIXED', 'PERCENTAGE')                  null,
-    date_created     datetime(6)                                   null,
-    date_modified    datetime(6)                                   null,
-    days_after_due   int                                           null,
-    fee_type         enum ('DAILY_FEE', 'LATE_FEE', 'SERVICE_FEE') null,
-    loan_id          bigint                                        not null,
-    constraint FK162ot8kb533m21m97ack9lb6i
-        foreign key (loan_id) references loan_products (id)
-);
-
-create index loan_products_name_index
-    on loan_products (name);
-
 create table loans
 (
     id                 bigint auto_increment
@@ -104,23 +82,3 @@ create table loans
     constraint FKri0g402nb4pqka97jtyiyjmdu
         foreign key (loan_product_id) references loan_products (id)
 );
-
-create index loans_customer_id_index
-    on loans (customer_id);
-
-create index loans_loan_product_id_index
-    on loans (loan_product_id);
-
-create table repayment_transactions
-(
-    id           bigint auto_increment
-        primary key,
-    amount_paid  decimal(38, 2) null,
-    payment_date datetime(6)    null,
-    customer_id  bigint         null,
-    loan_id      bigint         not null,
-    constraint FKjgmmm4egtbo7yu0y4wtrsnf8b
-        foreign key (customer_id) references customers (id),
-    constraint FKtg4jg5rb6qtdycf7cjhasnxdx
-        foreign key (loan_id) references loans (id)
-);
\ No newline at end of file